@@ -0,0 +1,84 @@
+package com.quizlive.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Pool de conexiones: métricas de espera y comprobación de tamaño al arrancar
+ *
+ * Cada hilo del pool de respuestas puede necesitar una conexión a la vez (más el tailer del
+ * registro de respuestas si está activo). Con menos conexiones, los hilos esperan al pool y la
+ * latencia de las respuestas crece con la carga: se avisa en el log para ajustar
+ * spring.datasource.hikari.maximum-pool-size.
+ */
+@Configuration
+@Slf4j
+public class ConnectionPoolConfig {
+
+    private final DataSource dataSource;
+    private final ExecutorService answerProcessingExecutor;
+    private final boolean answerLogEnabled;
+
+    public ConnectionPoolConfig(DataSource dataSource,
+                                @Qualifier("answerProcessingExecutor") ExecutorService answerProcessingExecutor,
+                                @Value("${quizlive.answer-log.enabled:false}") boolean answerLogEnabled) {
+        this.dataSource = dataSource;
+        this.answerProcessingExecutor = answerProcessingExecutor;
+        this.answerLogEnabled = answerLogEnabled;
+    }
+
+    @Bean
+    public static ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
+    /**
+     * Registrar las métricas en el HikariDataSource antes de que se abra el pool
+     */
+    @Bean
+    public static BeanPostProcessor hikariMetricsPostProcessor(ObjectProvider<ConnectionPoolMetrics> connectionPoolMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari && hikari.getMetricRegistry() == null
+                        && hikari.getMetricsTrackerFactory() == null) {
+                    hikari.setMetricsTrackerFactory(connectionPoolMetrics.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkPoolSize() {
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            return;
+        }
+        int answerThreads = answerProcessingExecutor instanceof ThreadPoolExecutor executor
+                ? executor.getMaximumPoolSize()
+                : 0;
+        int required = answerThreads + (answerLogEnabled ? 1 : 0);
+        int poolSize = hikari.getMaximumPoolSize();
+
+        if (poolSize < required) {
+            log.warn("⚠ Pool de conexiones '{}' con {} conexiones para {} hilos de respuestas{}: "
+                            + "las respuestas esperarán conexión bajo carga. Ajusta spring.datasource.hikari.maximum-pool-size (>= {})",
+                    hikari.getPoolName(), poolSize, answerThreads, answerLogEnabled ? " + tailer" : "", required);
+        } else {
+            log.info("Pool de conexiones '{}': {} conexiones para {} hilos de respuestas{}",
+                    hikari.getPoolName(), poolSize, answerThreads, answerLogEnabled ? " + tailer" : "");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.quizlive.config;
+
+import com.quizlive.dto.ConnectionPoolStatsDTO;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas del pool de conexiones (HikariCP) sin depender de Actuator
+ *
+ * Hikari llama al tracker en cada préstamo de conexión: aquí solo se acumulan contadores,
+ * sin bloqueos. El tiempo de espera indica si el pool se queda corto frente a los hilos que lo usan.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final AtomicLong slowAcquisitions = new AtomicLong();
+    private volatile PoolStats poolStats;
+
+    // Esperas por encima de este umbral se cuentan aparte (el pool estaba agotado)
+    private static final long SLOW_ACQUIRE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquisitions.increment();
+                acquireNanos.add(elapsedAcquiredNanos);
+                maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+                if (elapsedAcquiredNanos >= SLOW_ACQUIRE_NANOS) {
+                    slowAcquisitions.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageMillis.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * Estado del pool y tiempos de espera acumulados desde el arranque
+     */
+    public ConnectionPoolStatsDTO getStats() {
+        PoolStats current = poolStats;
+        long count = acquisitions.sum();
+        return new ConnectionPoolStatsDTO(
+                current != null ? current.getTotalConnections() : null,
+                current != null ? current.getActiveConnections() : null,
+                current != null ? current.getIdleConnections() : null,
+                current != null ? current.getPendingThreads() : null,
+                current != null ? current.getMaxConnections() : null,
+                count,
+                count > 0 ? acquireNanos.sum() / count / 1000 : 0,
+                maxAcquireNanos.get() / 1000,
+                slowAcquisitions.get(),
+                count > 0 ? (double) usageMillis.sum() / count : 0.0,
+                timeouts.sum());
+    }
+}
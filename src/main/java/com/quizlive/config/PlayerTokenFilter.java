@@ -0,0 +1,63 @@
+package com.quizlive.config;
+
+import com.quizlive.service.PlayerTokenService;
+import com.quizlive.service.PlayerTokenService.PlayerToken;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Autentica al jugador con el token firmado de la cookie (o de la cabecera X-Player-Token)
+ * Sin token válido la petición sigue como anónima: las rutas que lo exigen responden 401.
+ * No es un @Component para que Spring Boot no lo registre también como filtro de servlet.
+ */
+public class PlayerTokenFilter extends OncePerRequestFilter {
+
+    private static final List<GrantedAuthority> PLAYER_AUTHORITIES =
+            AuthorityUtils.createAuthorityList("ROLE_PLAYER");
+
+    private final PlayerTokenService playerTokenService;
+
+    public PlayerTokenFilter(PlayerTokenService playerTokenService) {
+        this.playerTokenService = playerTokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PlayerToken token = playerTokenService.verify(resolveToken(request));
+        if (token != null) {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(token, null, PLAYER_AUTHORITIES));
+            SecurityContextHolder.setContext(context);
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(PlayerTokenService.HEADER_NAME);
+        if (header != null) {
+            return header;
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (PlayerTokenService.COOKIE_NAME.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -1,16 +1,27 @@
 package com.quizlive.config;
 
+import com.quizlive.service.PlayerTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.context.DelegatingSecurityContextRepository;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 
 /**
  * Configuración de seguridad con autenticación en base de datos
@@ -21,13 +32,42 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
+    private final PlayerTokenService playerTokenService;
 
+    /**
+     * Rutas de los jugadores: sin sesión HTTP, el jugador se identifica con el token firmado de PlayerTokenService
+     * Así cualquier nodo puede atender a cualquier jugador y las peticiones de polling no tocan la sesión.
+     */
     @Bean
+    @Order(1)
+    public SecurityFilterChain playerFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/play/**", "/api/rooms/**", "/api/time")
+            .authorizeHttpRequests(auth -> auth
+                // Responder exige el token de jugador; el resto es público (lobby, estado, host)
+                .requestMatchers(HttpMethod.POST, "/api/rooms/*/submit-answer").hasRole("PLAYER")
+                .anyRequest().permitAll()
+            )
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            )
+            .requestCache(cache -> cache.disable())
+            .csrf(csrf -> csrf.disable())
+            .addFilterBefore(new PlayerTokenFilter(playerTokenService), AnonymousAuthenticationFilter.class)
+            .exceptionHandling(ex -> ex
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+            );
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .authorizeHttpRequests(auth -> auth
                 // Permitir acceso público sin autenticación
-                .requestMatchers("/", "/register", "/login", "/play/**", "/api/rooms/**", "/h2-console/**", "/css/**", "/js/**", "/error").permitAll()
+                .requestMatchers("/", "/register", "/login", "/h2-console/**", "/css/**", "/js/**", "/error").permitAll()
                 // Permitir acceso al podio (después del juego) sin autenticación
                 .requestMatchers("/rooms/*/podium").permitAll()
                 // Requerir autenticación para estas rutas
@@ -46,15 +86,30 @@ public class SecurityConfig {
                 .permitAll()
             )
             .csrf(csrf -> csrf
-                .ignoringRequestMatchers("/h2-console/**", "/play/**", "/api/rooms/**")
+                .ignoringRequestMatchers("/h2-console/**")
             )
             .headers(headers -> headers
                 .frameOptions(frame -> frame.sameOrigin())
+            )
+            .securityContext(context -> context
+                .securityContextRepository(securityContextRepository())
             );
 
         return http.build();
     }
 
+    /**
+     * Repositorio del contexto de seguridad de las páginas del host (el mismo que usa Spring Security por defecto)
+     * Spring Security 6 no guarda solo los cambios del contexto: quien sustituye la autenticación durante una
+     * petición (ProfileController al cambiar email o usuario) debe guardarla aquí para que llegue a la sesión.
+     */
+    @Bean
+    public SecurityContextRepository securityContextRepository() {
+        return new DelegatingSecurityContextRepository(
+                new RequestAttributeSecurityContextRepository(),
+                new HttpSessionSecurityContextRepository());
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
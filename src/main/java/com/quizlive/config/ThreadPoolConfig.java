@@ -1,18 +1,22 @@
 package com.quizlive.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuración del pool de hilos para requisitos de concurrencia PSP
  *
  * Esta configuración crea:
- * - ExecutorService: pool de hilos para procesar respuestas de jugadores de forma concurrente
+ * - ThreadPoolExecutor: pool de hilos para procesar respuestas de jugadores, con cola acotada
  * - ScheduledExecutorService: pool de temporizadores para tiempos de espera de preguntas
+ * - ScheduledExecutorService: hilo único que vuelca el registro de respuestas a base de datos
  *
  * Requisitos PSP:
  * - Varias salas pueden procesar respuestas simultáneamente
@@ -24,16 +28,21 @@ public class ThreadPoolConfig {
 
     /**
  * Pool de hilos para procesar respuestas de jugadores
- * El tamaño fijo del pool permite un procesamiento concurrente controlado
+ * La cola es acotada: con la cola llena se rechazan las respuestas nuevas (AnswerAdmissionControl responde 429)
+ * en lugar de acumular un retraso que las haría llegar después del cierre de la pregunta.
+ * Los hilos por encima de core-size solo se crean cuando la cola está llena.
  */
     @Bean(name = "answerProcessingExecutor")
-    public ExecutorService answerProcessingExecutor() {
-        int poolSize = 10; // Se puede configurar vía application.properties
-        return Executors.newFixedThreadPool(poolSize, runnable -> {
-            Thread thread = new Thread(runnable);
-            thread.setName("answer-pool-" + thread.getId());
-            return thread;
-        });
+    public ThreadPoolExecutor answerProcessingExecutor(
+            @Value("${quizlive.threadpool.answer-processing.core-size:10}") int coreSize,
+            @Value("${quizlive.threadpool.answer-processing.max-size:10}") int maxSize,
+            @Value("${quizlive.threadpool.answer-processing.queue-capacity:100}") int queueCapacity) {
+        return new ThreadPoolExecutor(coreSize, Math.max(coreSize, maxSize), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setName("answer-pool-" + thread.getId());
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
     }
 
     /**
@@ -41,12 +50,25 @@ public class ThreadPoolConfig {
  * Permite que varias salas tengan temporizadores de cuenta atrás independientes
  */
     @Bean(name = "timerExecutor")
-    public ScheduledExecutorService timerExecutor() {
-        int poolSize = 10; // Soporta 10+ temporizadores de salas concurrentes
+    public ScheduledExecutorService timerExecutor(@Value("${quizlive.threadpool.timer.pool-size:10}") int poolSize) {
         return Executors.newScheduledThreadPool(poolSize, runnable -> {
             Thread thread = new Thread(runnable);
             thread.setName("timer-pool-" + thread.getId());
             return thread;
         });
     }
+
+    /**
+ * Hilo único para el tailer del registro de respuestas en disco
+ * Un solo hilo garantiza que los lotes se cargan en orden de secuencia
+ */
+    @Bean(name = "answerLogExecutor")
+    public ScheduledExecutorService answerLogExecutor() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setName("answer-log-tailer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 }
\ No newline at end of file
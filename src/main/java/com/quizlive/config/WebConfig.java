@@ -0,0 +1,32 @@
+package com.quizlive.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-in-view solo para las páginas (spring.jpa.open-in-view=false desactiva el de Spring Boot)
+ *
+ * Las plantillas Thymeleaf recorren asociaciones perezosas y necesitan la sesión abierta hasta renderizar.
+ * La API de jugadores devuelve DTOs y sus peticiones long-poll quedan aparcadas hasta 30 s: con la sesión
+ * abierta cada una retendría una conexión del pool y unas pocas salas en espera lo agotarían.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public WebConfig(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor openInView = new OpenEntityManagerInViewInterceptor();
+        openInView.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(openInView)
+                .excludePathPatterns("/api/rooms/**");
+    }
+}
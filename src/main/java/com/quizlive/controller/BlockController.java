@@ -1,12 +1,13 @@
 package com.quizlive.controller;
 
+import com.quizlive.dto.BlockSummaryDTO;
 import com.quizlive.model.Block;
 import com.quizlive.model.User;
+import com.quizlive.service.AuthenticatedUser;
 import com.quizlive.service.BlockService;
 import com.quizlive.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -28,9 +29,9 @@ public class BlockController {
  * Listar todos los bloques del usuario actual
  */
     @GetMapping
-    public String listBlocks(@AuthenticationPrincipal UserDetails userDetails, Model model) {
-        User user = userService.findByUsername(userDetails.getUsername());
-        List<Block> blocks = blockService.getBlocksByUser(user.getId());
+    public String listBlocks(@AuthenticationPrincipal AuthenticatedUser principal, Model model) {
+        User user = userService.getProfile(principal);
+        List<BlockSummaryDTO> blocks = blockService.getBlockSummariesByUser(principal.getId());
         
         model.addAttribute("blocks", blocks);
         model.addAttribute("user", user);
@@ -51,9 +52,8 @@ public class BlockController {
     @PostMapping
     public String createBlock(@RequestParam String name,
                              @RequestParam(required = false) String description,
-                             @AuthenticationPrincipal UserDetails userDetails) {
-        User user = userService.findByUsername(userDetails.getUsername());
-        blockService.createBlock(name, description, user);
+                             @AuthenticationPrincipal AuthenticatedUser principal) {
+        blockService.createBlock(name, description, userService.getProfile(principal));
         return "redirect:/blocks";
     }
 
@@ -62,10 +62,9 @@ public class BlockController {
  */
     @GetMapping("/{id}/edit")
     public String showEditForm(@PathVariable Long id,
-                              @AuthenticationPrincipal UserDetails userDetails,
+                              @AuthenticationPrincipal AuthenticatedUser principal,
                               Model model) {
-        User user = userService.findByUsername(userDetails.getUsername());
-        Block block = blockService.getBlockById(id, user.getId());
+        Block block = blockService.getBlockById(id, principal.getId());
         model.addAttribute("block", block);
         return "blocks/edit";
     }
@@ -77,9 +76,8 @@ public class BlockController {
     public String updateBlock(@PathVariable Long id,
                              @RequestParam String name,
                              @RequestParam(required = false) String description,
-                             @AuthenticationPrincipal UserDetails userDetails) {
-        User user = userService.findByUsername(userDetails.getUsername());
-        blockService.updateBlock(id, name, description, user.getId());
+                             @AuthenticationPrincipal AuthenticatedUser principal) {
+        blockService.updateBlock(id, name, description, principal.getId());
         return "redirect:/blocks";
     }
 
@@ -88,10 +86,9 @@ public class BlockController {
  */
     @PostMapping("/{id}/delete")
     public String deleteBlock(@PathVariable Long id,
-                             @AuthenticationPrincipal UserDetails userDetails) {
-        User user = userService.findByUsername(userDetails.getUsername());
+                             @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            blockService.deleteBlock(id, user.getId());
+            blockService.deleteBlock(id, principal.getId());
         } catch (IllegalStateException e) {
             // El bloque está siendo usado por salas
             return "redirect:/blocks?error=" + e.getMessage();
@@ -99,15 +96,24 @@ public class BlockController {
         return "redirect:/blocks";
     }
 
+    /**
+ * Clonar bloque con todas sus preguntas
+ */
+    @PostMapping("/{id}/clone")
+    public String cloneBlock(@PathVariable Long id,
+                            @AuthenticationPrincipal AuthenticatedUser principal) {
+        blockService.cloneBlock(id, principal.getId());
+        return "redirect:/blocks";
+    }
+
     /**
  * Ver detalles del bloque con preguntas
  */
     @GetMapping("/{id}")
     public String viewBlock(@PathVariable Long id,
-                           @AuthenticationPrincipal UserDetails userDetails,
+                           @AuthenticationPrincipal AuthenticatedUser principal,
                            Model model) {
-        User user = userService.findByUsername(userDetails.getUsername());
-        Block block = blockService.getBlockById(id, user.getId());
+        Block block = blockService.getBlockWithQuestions(id, principal.getId());
         model.addAttribute("block", block);
         return "blocks/view";
     }
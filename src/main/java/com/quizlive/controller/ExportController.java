@@ -0,0 +1,98 @@
+package com.quizlive.controller;
+
+import com.quizlive.model.Block;
+import com.quizlive.model.Room;
+import com.quizlive.service.AuthenticatedUser;
+import com.quizlive.service.ExportService;
+import com.quizlive.service.ExportService.ExportFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+
+/**
+ * Descargas en streaming: preguntas de un bloque y resultados de una sala finalizada
+ * Las comprobaciones de propiedad se hacen antes de empezar a escribir, para poder responder con un error HTTP.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/api/blocks/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportBlock(@PathVariable Long id,
+                                                             @RequestParam(required = false) String format,
+                                                             @AuthenticationPrincipal AuthenticatedUser principal) {
+        ExportFormat exportFormat = resolveFormat(format);
+        Block block;
+        try {
+            block = exportService.getExportableBlock(id, principal.getId());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+        return download("bloque-" + block.getId() + "-preguntas", exportFormat,
+                out -> exportService.writeBlockQuestions(block.getId(), exportFormat, out));
+    }
+
+    @GetMapping("/rooms/{id}/export/answers")
+    public ResponseEntity<StreamingResponseBody> exportRoomAnswers(@PathVariable Long id,
+                                                                   @RequestParam(required = false) String format,
+                                                                   @AuthenticationPrincipal AuthenticatedUser principal) {
+        ExportFormat exportFormat = resolveFormat(format);
+        Room room = getExportableRoom(id, principal);
+        return download("sala-" + room.getId() + "-respuestas", exportFormat,
+                out -> exportService.writeRoomAnswers(room.getId(), exportFormat, out));
+    }
+
+    @GetMapping("/rooms/{id}/export/ranking")
+    public ResponseEntity<StreamingResponseBody> exportRoomRanking(@PathVariable Long id,
+                                                                   @RequestParam(required = false) String format,
+                                                                   @AuthenticationPrincipal AuthenticatedUser principal) {
+        ExportFormat exportFormat = resolveFormat(format);
+        Room room = getExportableRoom(id, principal);
+        return download("sala-" + room.getId() + "-clasificacion", exportFormat,
+                out -> exportService.writeRoomRanking(room.getId(), exportFormat, out));
+    }
+
+    private Room getExportableRoom(Long roomId, AuthenticatedUser principal) {
+        try {
+            return exportService.getExportableRoom(roomId, principal.getId());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (SecurityException e) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    private static ExportFormat resolveFormat(String format) {
+        try {
+            return ExportFormat.resolve(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(String baseName, ExportFormat format,
+                                                                  StreamingResponseBody body) {
+        String filename = baseName + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
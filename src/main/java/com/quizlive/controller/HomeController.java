@@ -1,8 +1,10 @@
 package com.quizlive.controller;
 
 import com.quizlive.model.User;
+import com.quizlive.service.AuthenticatedUser;
 import com.quizlive.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 
@@ -16,10 +18,10 @@ public class HomeController {
     private final UserService userService;
 
     @GetMapping("/")
-    public String home(java.security.Principal principal, org.springframework.ui.Model model) {
+    public String home(@AuthenticationPrincipal AuthenticatedUser principal, org.springframework.ui.Model model) {
         if (principal != null) {
             try {
-                User user = userService.findByUsername(principal.getName());
+                User user = userService.getProfile(principal);
                 model.addAttribute("user", user);
             } catch (Exception e) {
                 // Ignorar si el usuario no se encuentra por algún motivo
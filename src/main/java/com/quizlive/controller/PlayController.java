@@ -3,10 +3,16 @@ package com.quizlive.controller;
 import com.quizlive.model.Player;
 import com.quizlive.model.Room;
 import com.quizlive.service.PlayerService;
+import com.quizlive.service.PlayerTokenService;
+import com.quizlive.service.PlayerTokenService.PlayerToken;
 import com.quizlive.service.RoomService;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +25,7 @@ public class PlayController {
 
     private final RoomService roomService;
     private final PlayerService playerService;
+    private final PlayerTokenService playerTokenService;
 
     @GetMapping("/join")
     public String showJoinForm(@RequestParam(required = false) String pin, Model model) {
@@ -29,15 +36,22 @@ public class PlayController {
     @PostMapping("/join")
     public String joinRoom(@RequestParam String pin, 
                            @RequestParam String playerName,
-                           HttpSession session,
+                           HttpServletRequest request,
+                           HttpServletResponse response,
                            Model model) {
         try {
             Player player = playerService.joinRoom(pin, playerName);
             
-            // Guardar info del jugador en sesión para pasos posteriores del juego
-            session.setAttribute("playerPin", pin);
-            session.setAttribute("playerName", playerName);
-            session.setAttribute("playerId", player.getId());
+            // Token firmado con la sala y el jugador en lugar de atributos de sesión
+            ResponseCookie cookie = ResponseCookie.from(PlayerTokenService.COOKIE_NAME,
+                            playerTokenService.issue(player.getRoom().getId(), player.getId()))
+                    .httpOnly(true)
+                    .secure(request.isSecure())
+                    .sameSite("Lax")
+                    .path("/")
+                    .maxAge(playerTokenService.getTtlSeconds())
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
             
             return "redirect:/play/wait";
         } catch (Exception e) {
@@ -49,18 +63,16 @@ public class PlayController {
     }
 
     @GetMapping("/wait")
-    public String showWaitRoom(HttpSession session, Model model) {
-        String pin = (String) session.getAttribute("playerPin");
-        String name = (String) session.getAttribute("playerName");
-        
-        if (pin == null || name == null) {
+    public String showWaitRoom(@AuthenticationPrincipal PlayerToken token, Model model) {
+        if (token == null) {
             return "redirect:/play/join";
         }
         
         try {
-            Room room = roomService.getRoomByPin(pin);
+            Room room = roomService.getRoomById(token.roomId());
+            Player player = playerService.getPlayerById(token.playerId());
             model.addAttribute("room", room);
-            model.addAttribute("playerName", name);
+            model.addAttribute("playerName", player.getName());
             
             if (room.isRunning()) {
                 return "redirect:/play/game";
@@ -72,34 +84,18 @@ public class PlayController {
         }
     }
     @GetMapping("/game")
-    public String showGame(HttpSession session, Model model) {
-        String pin = (String) session.getAttribute("playerPin");
-        String name = (String) session.getAttribute("playerName");
-        
-        if (pin == null || name == null) {
+    public String showGame(@AuthenticationPrincipal PlayerToken token, Model model) {
+        if (token == null) {
             return "redirect:/play/join";
         }
         
-        Room room = roomService.getRoomByPin(pin);
-        Player player = playerService.getPlayerByPinAndName(pin, name);
+        Room room = roomService.getRoomById(token.roomId());
+        Player player = playerService.getPlayerById(token.playerId());
         
         model.addAttribute("room", room);
         model.addAttribute("player", player);
         
-        // Inyectar la pregunta actual para el renderizado inicial
-        try {
-             com.quizlive.service.GameEngineService gameEngineService = applicationContext.getBean(com.quizlive.service.GameEngineService.class);
-             com.quizlive.model.RoomQuestion currentQuestion = gameEngineService.getCurrentQuestion(pin);
-             if (currentQuestion != null) {
-                 model.addAttribute("currentQuestion", currentQuestion);
-             }
-        } catch (Exception e) {
-            log.warn("Could not fetch current question for room {}: {}", pin, e.getMessage());
-        }
-        
+        // La pregunta no se renderiza aquí: game.js la pide como JSON y la cambia sin recargar la página
         return "play/game/game";
     }
-
-    @org.springframework.beans.factory.annotation.Autowired
-    private org.springframework.context.ApplicationContext applicationContext;
 }
\ No newline at end of file
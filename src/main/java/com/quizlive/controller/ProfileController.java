@@ -1,19 +1,23 @@
 package com.quizlive.controller;
 
+import com.quizlive.dto.ProfileStatsDTO;
 import com.quizlive.model.User;
-import com.quizlive.service.BlockService;
-import com.quizlive.service.QuestionService;
+import com.quizlive.service.AuthenticatedUser;
+import com.quizlive.service.ProfileStatsService;
 import com.quizlive.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 
 @Controller
@@ -22,25 +26,27 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 public class ProfileController {
 
     private final UserService userService;
-    private final BlockService blockService;
-    private final QuestionService questionService;
+    private final ProfileStatsService profileStatsService;
     private final PasswordEncoder passwordEncoder;
+    private final SecurityContextRepository securityContextRepository;
 
 
     /**
  * Mostrar página de perfil/configuración de usuario
  */
     @GetMapping
-    public String showProfile(@AuthenticationPrincipal UserDetails userDetails, Model model) {
-        User user = userService.findByUsername(userDetails.getUsername());
+    public String showProfile(@AuthenticationPrincipal AuthenticatedUser principal, Model model) {
+        User user = userService.getProfile(principal);
         
-        // Calcular estadísticas
-        long blocksCount = blockService.getBlocksByUser(user.getId()).size();
-        long questionsCount = questionService.getAllQuestionsByUser(user.getId()).size();
+        // Calcular estadísticas (recuentos en base de datos, con caché breve por usuario)
+        ProfileStatsDTO stats = profileStatsService.getStats(principal.getId());
         
         model.addAttribute("user", user);
-        model.addAttribute("blocksCount", blocksCount);
-        model.addAttribute("questionsCount", questionsCount);
+        model.addAttribute("blocksCount", stats.blocks());
+        model.addAttribute("questionsCount", stats.questions());
+        model.addAttribute("roomsHosted", stats.roomsHosted());
+        model.addAttribute("playersServed", stats.playersServed());
+        model.addAttribute("answersReceived", stats.answersReceived());
         
         return "profile";
     }
@@ -55,25 +61,18 @@ public class ProfileController {
             @RequestParam(required = false) String email,
             @RequestParam(required = false) String bio,
             @RequestParam(required = false) String avatarColor,
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            HttpServletRequest request,
+            HttpServletResponse response,
             RedirectAttributes redirectAttributes) {
         
-        User user = userService.findByUsername(userDetails.getUsername());
+        // Entidad recién leída: la del perfil en caché es compartida y no se modifica
+        User user = userService.getUserById(principal.getId());
         
         // Actualizar nombre de usuario (comprobar unicidad)
         if (username != null && !username.trim().isEmpty() && !username.equals(user.getUsername())) {
             try {
                 userService.updateUsername(user, username.trim());
-                
-                // Actualizar el contexto de seguridad con el nuevo nombre de usuario
-                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-                Authentication newAuth = new UsernamePasswordAuthenticationToken(
-                    new org.springframework.security.core.userdetails.User(
-                        username.trim(), user.getPassword(), auth.getAuthorities()),
-                    auth.getCredentials(),
-                    auth.getAuthorities());
-                SecurityContextHolder.getContext().setAuthentication(newAuth);
-
             } catch (IllegalArgumentException e) {
                 redirectAttributes.addFlashAttribute("error", e.getMessage());
                 return "redirect:/profile";
@@ -98,6 +97,18 @@ public class ProfileController {
         }
         
         userService.save(user);
+        userService.evictProfile(principal.getEmail());
+        
+        // Actualizar el principal de la sesión (el email es el nombre de usuario de Spring Security)
+        // y guardarlo explícitamente: sin saveContext la siguiente petición cargaría el principal anterior
+        AuthenticatedUser updated = AuthenticatedUser.from(user);
+        updated.eraseCredentials();
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(updated, null, auth.getAuthorities()));
+        SecurityContextHolder.setContext(context);
+        securityContextRepository.saveContext(context, request, response);
         
         redirectAttributes.addFlashAttribute("success", "Perfil actualizado correctamente");
         return "redirect:/profile";
@@ -111,10 +122,10 @@ public class ProfileController {
             @RequestParam String currentPassword,
             @RequestParam String newPassword,
             @RequestParam String confirmPassword,
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             RedirectAttributes redirectAttributes) {
         
-        User user = userService.findByUsername(userDetails.getUsername());
+        User user = userService.getUserById(principal.getId());
         
         // Validar contraseña actual
         if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
@@ -136,6 +147,7 @@ public class ProfileController {
         // Actualizar contraseña
         user.setPassword(passwordEncoder.encode(newPassword));
         userService.save(user);
+        userService.evictProfile(principal.getEmail());
         
         redirectAttributes.addFlashAttribute("success", "Contraseña cambiada correctamente");
         return "redirect:/profile";
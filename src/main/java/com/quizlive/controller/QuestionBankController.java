@@ -2,22 +2,31 @@ package com.quizlive.controller;
 
 import com.quizlive.dto.BlockDTO;
 import com.quizlive.dto.QuestionDTO;
+import com.quizlive.dto.QuestionImportResultDTO;
+import com.quizlive.dto.QuestionPageDTO;
 import com.quizlive.model.Block;
 import com.quizlive.model.Question;
-import com.quizlive.model.User;
+import com.quizlive.service.AuthenticatedUser;
 import com.quizlive.service.BlockService;
+import com.quizlive.service.QuestionImportService;
 import com.quizlive.service.QuestionService;
 import com.quizlive.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Controller
@@ -26,15 +35,15 @@ import java.util.stream.Collectors;
 public class QuestionBankController {
 
     private final QuestionService questionService;
+    private final QuestionImportService questionImportService;
     private final BlockService blockService;
     private final UserService userService;
 
     // --- Endpoints de vista ---
 
     @GetMapping("/banco-preguntas")
-    public String viewQuestionBank(Model model, Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName());
-        model.addAttribute("username", user.getUsername());
+    public String viewQuestionBank(Model model, @AuthenticationPrincipal AuthenticatedUser principal) {
+        model.addAttribute("username", userService.getProfile(principal).getUsername());
         return "banco-preguntas";
     }
 
@@ -42,29 +51,48 @@ public class QuestionBankController {
 
     @GetMapping("/api/questions")
     @ResponseBody
-    public ResponseEntity<List<QuestionDTO>> getAllQuestions(Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName());
-        List<Question> questions = questionService.getAllQuestionsByUser(user.getId());
-        
-        List<QuestionDTO> dtos = questions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-                
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<QuestionPageDTO> getQuestions(@RequestParam(required = false) Long blockId,
+                                                        @RequestParam(required = false) String q,
+                                                        @RequestParam(required = false) Long after,
+                                                        @RequestParam(defaultValue = "50") int size,
+                                                        @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(questionService.searchQuestions(principal.getId(), blockId, q, after, size));
+    }
+
+    @GetMapping("/api/questions/search")
+    @ResponseBody
+    public ResponseEntity<List<QuestionDTO>> searchQuestions(@RequestParam String q,
+                                                             @RequestParam(required = false) Long blockId,
+                                                             @RequestParam(defaultValue = "50") int limit,
+                                                             @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(questionService.searchQuestionsRanked(principal.getId(), q, blockId, limit));
+    }
+
+    @PostMapping("/api/questions/import")
+    @ResponseBody
+    public ResponseEntity<QuestionImportResultDTO> importQuestions(@RequestParam Long blockId,
+                                                                   @RequestParam MultipartFile file,
+                                                                   @RequestParam(required = false) String format,
+                                                                   @AuthenticationPrincipal AuthenticatedUser principal) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            QuestionImportService.ImportFormat importFormat =
+                    QuestionImportService.ImportFormat.resolve(format, file.getOriginalFilename());
+            return ResponseEntity.ok(questionImportService.importQuestions(blockId, principal.getId(), input, importFormat));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @GetMapping("/api/questions/{id}")
     @ResponseBody
-    public ResponseEntity<QuestionDTO> getQuestion(@PathVariable Long id, Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName());
-        Question question = questionService.getQuestionById(id, user.getId());
+    public ResponseEntity<QuestionDTO> getQuestion(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        Question question = questionService.getQuestionById(id, principal.getId());
         return ResponseEntity.ok(convertToDTO(question));
     }
 
     @PostMapping("/api/questions")
     @ResponseBody
-    public ResponseEntity<QuestionDTO> createQuestion(@Valid @RequestBody QuestionDTO dto, Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName());
+    public ResponseEntity<QuestionDTO> createQuestion(@Valid @RequestBody QuestionDTO dto, @AuthenticationPrincipal AuthenticatedUser principal) {
         
         Question created = questionService.createQuestion(
                 dto.getBlockId(),
@@ -74,7 +102,7 @@ public class QuestionBankController {
                 dto.getOption3(),
                 dto.getOption4(),
                 dto.getCorrectOption(),
-                user.getId()
+                principal.getId()
         );
         
         return ResponseEntity.ok(convertToDTO(created));
@@ -82,8 +110,7 @@ public class QuestionBankController {
 
     @PutMapping("/api/questions/{id}")
     @ResponseBody
-    public ResponseEntity<QuestionDTO> updateQuestion(@PathVariable Long id, @Valid @RequestBody QuestionDTO dto, Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName());
+    public ResponseEntity<QuestionDTO> updateQuestion(@PathVariable Long id, @Valid @RequestBody QuestionDTO dto, @AuthenticationPrincipal AuthenticatedUser principal) {
         
         Question updated = questionService.updateQuestion(
                 id,
@@ -93,7 +120,7 @@ public class QuestionBankController {
                 dto.getOption3(),
                 dto.getOption4(),
                 dto.getCorrectOption(),
-                user.getId()
+                principal.getId()
         );
         
         return ResponseEntity.ok(convertToDTO(updated));
@@ -101,25 +128,55 @@ public class QuestionBankController {
 
     @DeleteMapping("/api/questions/{id}")
     @ResponseBody
-    public ResponseEntity<Void> deleteQuestion(@PathVariable Long id, Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName());
-        questionService.deleteQuestion(id, user.getId());
+    public ResponseEntity<Void> deleteQuestion(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        questionService.deleteQuestion(id, principal.getId());
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/api/questions/{id}/duplicate")
     @ResponseBody
-    public ResponseEntity<QuestionDTO> duplicateQuestion(@PathVariable Long id, Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName());
-        Question duplicated = questionService.duplicateQuestion(id, user.getId());
+    public ResponseEntity<QuestionDTO> duplicateQuestion(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        Question duplicated = questionService.duplicateQuestion(id, principal.getId());
         return ResponseEntity.ok(convertToDTO(duplicated));
     }
 
+    @PostMapping("/api/questions/bulk-duplicate")
+    @ResponseBody
+    public ResponseEntity<Map<String, Integer>> duplicateQuestions(@RequestBody Map<String, List<Long>> payload,
+                                                                   @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            int duplicated = questionService.duplicateQuestions(payload.get("ids"), principal.getId());
+            return ResponseEntity.ok(Map.of("duplicated", duplicated));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping("/api/questions/bulk-delete")
+    @ResponseBody
+    public ResponseEntity<Map<String, Integer>> deleteQuestions(@RequestBody Map<String, List<Long>> payload,
+                                                                @AuthenticationPrincipal AuthenticatedUser principal) {
+        try {
+            int deleted = questionService.deleteQuestions(payload.get("ids"), principal.getId());
+            return ResponseEntity.ok(Map.of("deleted", deleted));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @PostMapping("/api/blocks/{id}/clone")
+    @ResponseBody
+    public ResponseEntity<BlockDTO> cloneBlock(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
+        Block copy = blockService.cloneBlock(id, principal.getId());
+        return ResponseEntity.ok(new BlockDTO(copy.getId(), copy.getName()));
+    }
+
     @GetMapping("/api/blocks")
     @ResponseBody
-    public ResponseEntity<List<BlockDTO>> getUserBlocks(Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName());
-        List<Block> blocks = blockService.getBlocksByUser(user.getId());
+    public ResponseEntity<List<BlockDTO>> getUserBlocks(@AuthenticationPrincipal AuthenticatedUser principal) {
+        List<Block> blocks = blockService.getBlocksByUser(principal.getId());
         List<BlockDTO> dtos = blocks.stream()
                 .map(block -> new BlockDTO(block.getId(), block.getName()))
                 .collect(Collectors.toList());
@@ -1,74 +1,117 @@
 package com.quizlive.controller;
 
-import com.quizlive.model.Player;
+import com.quizlive.dto.AnswerResultDTO;
+import com.quizlive.dto.AnswersCountDTO;
+import com.quizlive.dto.NextQuestionDTO;
+import com.quizlive.dto.PlayerSummaryDTO;
+import com.quizlive.dto.QuestionPayloadDTO;
+import com.quizlive.dto.RoomStatusDTO;
 import com.quizlive.model.Room;
-import com.quizlive.model.RoomQuestion;
-import com.quizlive.repository.AnswerRepository;
+import com.quizlive.service.AnswerRejectedException;
 import com.quizlive.service.GameEngineService;
 import com.quizlive.service.PlayerService;
+import com.quizlive.service.PlayerTokenService.PlayerToken;
 import com.quizlive.service.RoomService;
+import com.quizlive.service.RoomUpdateNotifier;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/rooms")
 @RequiredArgsConstructor
 public class RoomApiController {
 
+    private static final Duration DEFAULT_LONG_POLL_TIMEOUT = Duration.ofSeconds(25);
+    private static final Duration MAX_LONG_POLL_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+    private static final String ROOM_STATUS = "room-status";
+    private static final String QUESTION_STATUS = "question-status";
+
     private final PlayerService playerService;
     private final RoomService roomService;
     private final GameEngineService gameEngineService;
-    private final AnswerRepository answerRepository;
+    private final RoomUpdateNotifier roomUpdateNotifier;
 
     @GetMapping("/{roomId}/players")
-    public List<Player> getPlayers(@PathVariable Long roomId) {
-        return playerService.getPlayersByRoom(roomId);
+    public List<PlayerSummaryDTO> getPlayers(@PathVariable Long roomId) {
+        return playerService.getPlayerSummariesByRoom(roomId);
     }
 
+    /**
+     * Estado de la sala (WAITING, RUNNING, FINISHED); la versión es el propio estado, que solo avanza
+     */
     @GetMapping("/{pin}/status")
-    public Map<String, Object> getRoomStatus(@PathVariable String pin) {
-        Room room = roomService.getRoomByPin(pin);
-        Map<String, Object> status = new HashMap<>();
-        status.put("state", room.getState().toString());
-        status.put("pin", room.getPin());
-        return status;
+    public ResponseEntity<RoomStatusDTO> getRoomStatus(@PathVariable String pin,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Versioned<RoomStatusDTO> status = roomStatus(roomService.getRoomByPin(pin));
+        return respond(status, matchesVersion(ifNoneMatch, status.etag()));
+    }
+
+    /**
+     * Variante long-poll de /status: la petición queda aparcada hasta que la sala cambia de estado o vence timeout
+     */
+    @GetMapping(value = "/{pin}/status", params = "waitFor")
+    public DeferredResult<ResponseEntity<RoomStatusDTO>> waitForRoomStatus(@PathVariable String pin,
+                                                                           @RequestParam String waitFor,
+                                                                           @RequestParam(required = false) String timeout) {
+        Long roomId = roomService.getRoomByPin(pin).getId();
+        // Se vuelve a leer por id: el PIN puede reasignarse a otra sala cuando esta termina
+        return longPoll(roomId, waitFor, timeout, ROOM_STATUS, () -> roomStatus(roomService.getRoomById(roomId)));
     }
+
     @PostMapping("/{roomId}/next-question")
-    public Map<String, Object> nextQuestion(@PathVariable Long roomId) {
+    public NextQuestionDTO nextQuestion(@PathVariable Long roomId) {
         var question = roomService.getNextQuestion(roomId);
-        Map<String, Object> response = new HashMap<>();
-        if (question != null) {
-            response.put("finished", false);
-            response.put("questionId", question.getId());
-        } else {
-            response.put("finished", true);
-        }
-        return response;
+        return question != null ? new NextQuestionDTO(false, question.getId()) : new NextQuestionDTO(true, null);
     }
 
+    /**
+     * Registrar la respuesta del jugador del token
+     * Idempotency-Key identifica el envío: un reintento con la misma clave recibe el resultado original.
+     */
     @PostMapping("/{roomId}/submit-answer")
-    public Map<String, Object> submitAnswer(@PathVariable Long roomId, @RequestBody Map<String, Object> payload) {
-        Long playerId = Long.valueOf(payload.get("playerId").toString());
+    public ResponseEntity<AnswerResultDTO> submitAnswer(@PathVariable Long roomId, @AuthenticationPrincipal PlayerToken token,
+                                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                        @RequestBody Map<String, Object> payload) {
+        // Sala y jugador salen del token firmado: el playerId del cuerpo, si llega, tiene que coincidir
+        Object claimedPlayerId = payload.get("playerId");
+        if (token.roomId() != roomId
+                || (claimedPlayerId != null && !claimedPlayerId.toString().equals(Long.toString(token.playerId())))) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Token does not match this room or player");
+        }
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Idempotency-Key");
+        }
         Long questionId = Long.valueOf(payload.get("questionId").toString());
         Integer selectedOption = Integer.valueOf(payload.get("selectedOption").toString());
 
-        Room room = roomService.getRoomById(roomId);
-        Player player = playerService.getPlayerById(playerId);
-        
         try {
-            var answer = gameEngineService.submitAnswer(room.getPin(), player.getName(), questionId, selectedOption).join();
-            Map<String, Object> response = new HashMap<>();
-            response.put("correct", answer.getIsCorrect());
-            response.put("points", answer.getPointsEarned());
-            response.put("totalScore", answer.getPlayer() != null ? answer.getPlayer().getScore() : 0);
-            return response;
+            return ResponseEntity.ok(gameEngineService
+                    .submitAnswer(roomId, token.playerId(), questionId, selectedOption, idempotencyKey)
+                    .join());
         } catch (java.util.concurrent.CompletionException e) {
             // Unwrap CompletionException to get actual cause
             Throwable cause = e.getCause();
+            if (cause instanceof AnswerRejectedException rejected) {
+                return answerRejected(rejected);
+            }
             if (cause instanceof IllegalStateException) {
                 // Player already answered - this is expected in race conditions
                 throw new org.springframework.web.server.ResponseStatusException(
@@ -81,52 +124,148 @@ public class RoomApiController {
         }
     }
 
+    /**
+     * Respuesta del control de admisión: 429 con la cola llena, 503 al apagar (ambos con Retry-After; el cliente
+     * reintenta con la misma Idempotency-Key) y 409 si la pregunta cerraría antes de procesarla
+     */
+    private static ResponseEntity<AnswerResultDTO> answerRejected(AnswerRejectedException rejected) {
+        HttpStatus status = switch (rejected.getReason()) {
+            case QUEUE_FULL -> HttpStatus.TOO_MANY_REQUESTS;
+            case SHUTTING_DOWN -> HttpStatus.SERVICE_UNAVAILABLE;
+            case DEADLINE -> HttpStatus.CONFLICT;
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (rejected.getRetryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, Long.toString(rejected.getRetryAfterSeconds()));
+        }
+        return response.build();
+    }
+
+    /**
+     * Texto y opciones de una pregunta ya abierta, para que el jugador la muestre sin recargar la página
+     * El contenido de una pregunta no cambia durante la partida: el navegador puede reutilizarlo.
+     */
+    @GetMapping("/{roomId}/questions/{questionId}")
+    public ResponseEntity<QuestionPayloadDTO> getQuestionPayload(@PathVariable Long roomId, @PathVariable Long questionId) {
+        QuestionPayloadDTO payload;
+        try {
+            payload = gameEngineService.getQuestionPayload(roomId, questionId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePrivate())
+                .body(payload);
+    }
+
+    /**
+     * Estado de la pregunta en curso, para el polling de jugadores y anfitrión
+     * Mientras la sala está en juego se devuelven los bytes ya serializados en la última transición, sin
+     * consultar la base de datos; el tiempo restante lo calcula cada cliente a partir de deadline.
+     */
     @GetMapping("/{roomId}/current-question")
-    public Map<String, Object> getCurrentQuestion(@PathVariable Long roomId) {
-        Room room = roomService.getRoomById(roomId);
-        Map<String, Object> response = new HashMap<>();
-
-        if (room.isFinished()) {
-            response.put("finished", true);
-            response.put("state", "FINISHED");
-            return response;
+    public ResponseEntity<byte[]> getCurrentQuestion(@PathVariable Long roomId,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Versioned<byte[]> status = questionStatus(roomId);
+        return respond(status, matchesVersion(ifNoneMatch, status.etag()));
+    }
+
+    /**
+     * Variante long-poll de /current-question: una petición aparcada por jugador hasta la siguiente transición
+     */
+    @GetMapping(value = "/{roomId}/current-question", params = "waitFor")
+    public DeferredResult<ResponseEntity<byte[]>> waitForCurrentQuestion(@PathVariable Long roomId,
+                                                                         @RequestParam String waitFor,
+                                                                         @RequestParam(required = false) String timeout) {
+        return longPoll(roomId, waitFor, timeout, QUESTION_STATUS, () -> questionStatus(roomId));
+    }
+
+    /**
+     * Respuestas recibidas a la pregunta en curso (contador en memoria, para la pantalla del anfitrión)
+     */
+    @GetMapping("/{roomId}/answers-count")
+    public AnswersCountDTO getAnswersCount(@PathVariable Long roomId) {
+        return new AnswersCountDTO(gameEngineService.getCurrentAnswersCount(roomId));
+    }
+
+    private record Versioned<T>(String etag, T body) {
+    }
+
+    private Versioned<byte[]> questionStatus(Long roomId) {
+        GameEngineService.StatusSnapshot snapshot = gameEngineService.getStatusSnapshot(roomId);
+        if (snapshot == null) {
+            Room room = roomService.getRoomById(roomId);
+            snapshot = gameEngineService.getInactiveStatusSnapshot(room.isFinished());
+        }
+        return new Versioned<>(snapshot.etag(), snapshot.payload());
+    }
+
+    private static Versioned<RoomStatusDTO> roomStatus(Room room) {
+        return new Versioned<>(Integer.toString(room.getState().ordinal()), new RoomStatusDTO(room.getPin(), room.getState().toString()));
+    }
+
+    /**
+     * Aparcar la petición hasta que el ETag deje de ser waitFor; al vencer el plazo se responde 304
+     * Se comprueba la versión después de suscribirse para no perder un cambio publicado entre medias.
+     * Al avisarse un cambio, el estado se lee una sola vez (clave kind) para todas las peticiones aparcadas.
+     */
+    private <T> DeferredResult<ResponseEntity<T>> longPoll(Long roomId, String waitFor, String timeout,
+                                                           String kind, Supplier<Versioned<T>> current) {
+        DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(resolveLongPollTimeout(timeout).toMillis());
+        Consumer<Versioned<T>> complete = status -> result.setResult(respond(status, status.etag().equals(waitFor)));
+        Runnable unsubscribe = roomUpdateNotifier.subscribe(roomId, update -> complete.accept(update.shared(kind, current)));
+        result.onTimeout(() -> complete.accept(current.get()));
+        result.onCompletion(unsubscribe);
+
+        Versioned<T> status = current.get();
+        if (!status.etag().equals(waitFor)) {
+            result.setResult(respond(status, false));
         }
+        return result;
+    }
 
-        RoomQuestion question;
+    private static Duration resolveLongPollTimeout(String timeout) {
+        if (timeout == null || timeout.isBlank()) {
+            return DEFAULT_LONG_POLL_TIMEOUT;
+        }
+        Duration duration;
         try {
-            question = gameEngineService.getCurrentQuestion(room.getPin());
-        } catch (Exception e) {
-            question = null;
+            duration = DurationStyle.detectAndParse(timeout.trim(), ChronoUnit.SECONDS);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid timeout: " + timeout);
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid timeout: " + timeout);
+        }
+        return duration.compareTo(MAX_LONG_POLL_TIMEOUT) > 0 ? MAX_LONG_POLL_TIMEOUT : duration;
+    }
+
+    private static <T> ResponseEntity<T> respond(Versioned<T> status, boolean notModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(status.etag())
+                .cacheControl(CacheControl.noCache());
+        if (notModified) {
+            return builder.build();
         }
-        
-        if (question != null) {
-            response.put("id", question.getId());
-            response.put("text", question.getQuestion().getText());
-            response.put("isOpen", question.getIsOpen());
-            response.put("answersCount", answerRepository.countByRoomQuestionId(question.getId()));
-            response.put("finished", false);
-            // No enviar la opción correcta a los jugadores si no es seguro, pero por simplicidad se envían datos mínimos
-            // Para ser seguros, NO deberíamos enviar la respuesta correcta hasta que se cierre, pero esto es para el sondeo de estado
-            
-            if (question.getIsOpen()) {
-                response.put("state", "ACTIVE");
-                // Calcular tiempo restante
-                long elapsed = java.time.Duration.between(question.getStartTime(), java.time.LocalDateTime.now()).getSeconds();
-                long total = question.getRoom().getTimePerQuestion();
-                response.put("remainingSeconds", Math.max(0, total - elapsed));
-            } else {
-                response.put("state", "CLOSED");
-                // Indicar que hay una próxima pregunta en camino
-                response.put("nextQuestionSoon", true);
+        return builder.contentType(MediaType.APPLICATION_JSON).body(status.body());
+    }
+
+    private static boolean matchesVersion(String ifNoneMatch, String version) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String etag = "\"" + version + "\"";
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
             }
-        } else {
-            // No hay pregunta actual - podría estar en transición
-            response.put("finished", false);
-            response.put("state", "WAITING");
-            // Verificar si el juego está activo (significa que hay una pregunta en camino)
-            boolean isRoomActive = gameEngineService.isRoomActive(room.getPin());
-            response.put("nextQuestionSoon", isRoomActive);
         }
-        return response;
+        return false;
     }
 }
\ No newline at end of file
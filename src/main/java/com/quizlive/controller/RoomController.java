@@ -1,12 +1,14 @@
 package com.quizlive.controller;
 
-import com.quizlive.model.Answer;
-import com.quizlive.model.Block;
+import com.quizlive.dto.AnswerStatsDTO;
+import com.quizlive.dto.BlockSummaryDTO;
+import com.quizlive.dto.QuestionCountDTO;
+import com.quizlive.dto.RoomHistoryPageDTO;
 import com.quizlive.model.Player;
 import com.quizlive.model.Room;
-import com.quizlive.model.RoomQuestion;
 import com.quizlive.model.User;
 import com.quizlive.repository.AnswerRepository;
+import com.quizlive.service.AuthenticatedUser;
 import com.quizlive.service.BlockService;
 import com.quizlive.service.GameEngineService;
 import com.quizlive.service.PlayerService;
@@ -14,12 +16,13 @@ import com.quizlive.service.RoomService;
 import com.quizlive.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.security.Principal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,9 +41,9 @@ public class RoomController {
     private final AnswerRepository answerRepository;
 
     @GetMapping("/new")
-    public String showCreateRoomForm(Principal principal, Model model) {
-        User user = userService.findByUsername(principal.getName());
-        List<Block> availableBlocks = blockService.getBlocksByUser(user.getId());
+    public String showCreateRoomForm(@AuthenticationPrincipal AuthenticatedUser principal, Model model) {
+        User user = userService.getProfile(principal);
+        List<BlockSummaryDTO> availableBlocks = blockService.getBlockSummariesByUser(principal.getId());
         
         if (availableBlocks.isEmpty()) {
             model.addAttribute("error", "Necesitas crear al menos un bloque para poder crear una sala.");
@@ -51,14 +54,35 @@ public class RoomController {
         return "rooms/new";
     }
 
+    @GetMapping("/history")
+    public String showHistory(@RequestParam(required = false) Long before,
+                              @RequestParam(defaultValue = "20") int size,
+                              @AuthenticationPrincipal AuthenticatedUser principal, Model model) {
+        User user = userService.getProfile(principal);
+        model.addAttribute("history", roomService.getRoomHistory(principal.getId(), before, size));
+        model.addAttribute("user", user); // Para la barra lateral
+        return "rooms/history";
+    }
+
+    /**
+ * Historial en JSON para clientes que paginan por su cuenta (mismo cursor "before")
+ */
+    @GetMapping("/history/data")
+    @ResponseBody
+    public RoomHistoryPageDTO getHistory(@RequestParam(required = false) Long before,
+                                         @RequestParam(defaultValue = "20") int size,
+                                         @AuthenticationPrincipal AuthenticatedUser principal) {
+        return roomService.getRoomHistory(principal.getId(), before, size);
+    }
+
     @PostMapping
     public String createRoom(@RequestParam Long blockId,
                              @RequestParam Integer numQuestions,
                              @RequestParam Integer timePerQuestion,
                              @RequestParam String selectionMode,
-                             Principal principal,
+                             @AuthenticationPrincipal AuthenticatedUser principal,
                              RedirectAttributes redirectAttributes) {
-        User host = userService.findByUsername(principal.getName());
+        User host = userService.getProfile(principal);
         
         try {
             Room.SelectionMode mode = Room.SelectionMode.valueOf(selectionMode.toUpperCase());
@@ -76,12 +100,12 @@ public class RoomController {
     }
 
     @GetMapping("/{pin}/lobby")
-    public String showLobby(@PathVariable String pin, Principal principal, Model model) {
-        User user = userService.findByUsername(principal.getName());
+    public String showLobby(@PathVariable String pin, @AuthenticationPrincipal AuthenticatedUser principal, Model model) {
+        User user = userService.getProfile(principal);
         Room room = roomService.getRoomByPin(pin);
         
         // Comprobación de seguridad: solo el anfitrión puede ver el lobby del anfitrión
-        if (!room.getHost().getId().equals(user.getId())) {
+        if (!room.getHost().getId().equals(principal.getId())) {
             return "redirect:/blocks?error=access_denied";
         }
         
@@ -92,20 +116,19 @@ public class RoomController {
     }
 
     @PostMapping("/{id}/start")
-    public String startRoom(@PathVariable Long id, Principal principal) {
-        User host = userService.findByUsername(principal.getName());
+    public String startRoom(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal) {
         Room room = roomService.getRoomById(id);
-        if (!room.getHost().getId().equals(host.getId())) {
+        if (!room.getHost().getId().equals(principal.getId())) {
             throw new SecurityException("Only the host can start the room");
         }
         gameEngineService.startGame(room.getPin());
         return "redirect:/rooms/" + id + "/game"; // Esta página aún no existe, pero el flujo es correcto
     }
     @GetMapping("/{id}/game")
-    public String showGame(@PathVariable Long id, Principal principal, Model model) {
-        User user = userService.findByUsername(principal.getName());
+    public String showGame(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser principal, Model model) {
         Room room = roomService.getRoomById(id);
         model.addAttribute("room", room);
+        model.addAttribute("playerCount", playerService.countPlayersByRoom(room.getId()));
         try {
             var q = gameEngineService.getCurrentQuestion(room.getPin());
             model.addAttribute("currentQuestion", q);
@@ -128,7 +151,16 @@ public class RoomController {
     @GetMapping("/{id}/podium")
     public String showPodium(@PathVariable Long id, 
                             @RequestParam(required = false) String playerName,
+                            @AuthenticationPrincipal AuthenticatedUser principal,
                             Model model) {
+        // Enlaces de exportación solo para el anfitrión de una sala finalizada
+        if (principal != null) {
+            Room room = roomService.getRoomById(id);
+            model.addAttribute("isHost", room.isFinished() && room.getHost().getId().equals(principal.getId()));
+            model.addAttribute("roomId", id);
+        }
+
+
         // Ranking de jugadores
         List<Player> ranking = playerService.getRankingByRoom(id);
         model.addAttribute("ranking", ranking);
@@ -145,48 +177,38 @@ public class RoomController {
             }
         }
         
-        // Estadísticas globales: pregunta más fallada
-        List<Object[]> failedQuestions = answerRepository.findMostFailedQuestionsByRoom(id);
+        // Estadísticas globales: pregunta más fallada (proyección con el texto, sin cargar entidades)
+        List<QuestionCountDTO> failedQuestions = answerRepository.findQuestionCountsByRoom(id, false, PageRequest.of(0, 1));
         if (!failedQuestions.isEmpty()) {
-            Object[] mostFailed = failedQuestions.get(0);
-            RoomQuestion roomQuestion = (RoomQuestion) mostFailed[0];
-            Long failCount = (Long) mostFailed[1];
-            model.addAttribute("mostFailedQuestion", roomQuestion.getQuestion().getText());
-            model.addAttribute("mostFailedCount", failCount);
+            QuestionCountDTO mostFailed = failedQuestions.get(0);
+            model.addAttribute("mostFailedQuestion", mostFailed.questionText());
+            model.addAttribute("mostFailedCount", mostFailed.count());
         }
         
         // Estadísticas globales: pregunta más acertada
-        List<Object[]> correctQuestions = answerRepository.findMostCorrectQuestionsByRoom(id);
+        List<QuestionCountDTO> correctQuestions = answerRepository.findQuestionCountsByRoom(id, true, PageRequest.of(0, 1));
         if (!correctQuestions.isEmpty()) {
-            Object[] mostCorrect = correctQuestions.get(0);
-            RoomQuestion roomQuestion = (RoomQuestion) mostCorrect[0];
-            Long correctCount = (Long) mostCorrect[1];
-            model.addAttribute("mostCorrectQuestion", roomQuestion.getQuestion().getText());
-            model.addAttribute("mostCorrectCount", correctCount);
+            QuestionCountDTO mostCorrect = correctQuestions.get(0);
+            model.addAttribute("mostCorrectQuestion", mostCorrect.questionText());
+            model.addAttribute("mostCorrectCount", mostCorrect.count());
         }
         
-        // Calcular tasa global de aciertos
-        List<Answer> allAnswers = answerRepository.findByRoomId(id);
-        if (!allAnswers.isEmpty()) {
-            long totalCorrect = allAnswers.stream().filter(Answer::getIsCorrect).count();
-            double successRate = (double) totalCorrect / allAnswers.size() * 100;
-            model.addAttribute("globalSuccessRate", String.format("%.1f", successRate));
+        // Calcular tasa global de aciertos (agregado en la base de datos)
+        AnswerStatsDTO roomStats = answerRepository.getStatsByRoom(id);
+        if (roomStats.total() > 0) {
+            model.addAttribute("globalSuccessRate", String.format("%.1f", roomStats.successRate()));
         }
         
         // Estadísticas personales del jugador actual (solo si playerName está presente)
         if (currentPlayerId != null) {
-            List<Answer> playerAnswers = answerRepository.findPlayerAnswersInRoom(currentPlayerId, id);
-            if (!playerAnswers.isEmpty()) {
-                long correct = playerAnswers.stream().filter(Answer::getIsCorrect).count();
-                long incorrect = playerAnswers.size() - correct;
-                double personalRate = (double) correct / playerAnswers.size() * 100;
+            AnswerStatsDTO playerStats = answerRepository.getStatsByPlayerInRoom(currentPlayerId, id);
+            if (playerStats.total() > 0) {
+                long correct = playerStats.correctCount();
+                long incorrect = playerStats.total() - correct;
+                double personalRate = playerStats.successRate();
                 
                 // Mejor tiempo de respuesta
-                Long bestTime = playerAnswers.stream()
-                    .filter(a -> a.getResponseTime() != null)
-                    .map(Answer::getResponseTime)
-                    .min(Long::compareTo)
-                    .orElse(null);
+                Long bestTime = playerStats.bestResponseTimeMillis();
                 
                 model.addAttribute("playerCorrect", correct);
                 model.addAttribute("playerIncorrect", incorrect);
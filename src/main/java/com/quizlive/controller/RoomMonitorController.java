@@ -1,15 +1,27 @@
 package com.quizlive.controller;
 
-import com.quizlive.model.Player;
-import com.quizlive.model.RoomQuestion;
+import com.quizlive.config.ConnectionPoolMetrics;
+import com.quizlive.dto.AnswerQueueStatsDTO;
+import com.quizlive.dto.HealthDTO;
+import com.quizlive.dto.MonitorRoomDTO;
+import com.quizlive.dto.MonitorRoomDetailDTO;
+import com.quizlive.dto.MonitorRoomsDTO;
+import com.quizlive.dto.PlayerSummaryDTO;
+import com.quizlive.dto.SystemStatsDTO;
+import com.quizlive.dto.ThreadPoolStatsDTO;
+import com.quizlive.service.AnswerAdmissionControl;
 import com.quizlive.service.GameEngineService;
 import com.quizlive.service.PlayerService;
+import com.quizlive.service.RoomReaperService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
 
 /**
@@ -24,56 +36,39 @@ public class RoomMonitorController {
 
     private final GameEngineService gameEngineService;
     private final PlayerService playerService;
+    private final RoomReaperService roomReaperService;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final AnswerAdmissionControl answerAdmissionControl;
+
+    @Qualifier("timerExecutor")
+    private final ScheduledExecutorService timerExecutor;
 
     /**
      * GET /api/monitor/active-rooms
      * Listar todas las salas activas con información resumida
      */
     @GetMapping("/active-rooms")
-    public ResponseEntity<Map<String, Object>> getActiveRooms() {
+    public ResponseEntity<MonitorRoomsDTO> getActiveRooms() {
         log.debug("📊 [MONITOR] Solicitando lista de salas activas");
         
-        Set<String> activePins = gameEngineService.getActiveRoomPins();
+        // Pregunta en curso y jugadores salen del estado en memoria del motor
+        List<GameEngineService.ActiveRoomSnapshot> snapshots = gameEngineService.getActiveRoomSnapshots();
+        Set<String> activePins = snapshots.stream()
+                .map(GameEngineService.ActiveRoomSnapshot::pin)
+                .collect(Collectors.toSet());
+        // Una sola consulta para los jugadores de todas las salas (antes, una por sala)
+        Map<String, List<String>> playerNamesByPin = playerService.getPlayerNamesByRoomPins(activePins);
         
-        List<Map<String, Object>> roomsInfo = activePins.stream()
-                .map(pin -> {
-                    try {
-                        RoomQuestion currentQuestion = gameEngineService.getCurrentQuestion(pin);
-                        List<Player> players = playerService.getPlayersByRoomPin(pin);
-                        
-                        Map<String, Object> roomInfo = new HashMap<>();
-                        roomInfo.put("pin", pin);
-                        roomInfo.put("activePlayers", players.size());
-                        roomInfo.put("playerNames", players.stream()
-                                .map(Player::getName)
-                                .collect(Collectors.toList()));
-                        
-                        if (currentQuestion != null) {
-                            roomInfo.put("currentQuestionId", currentQuestion.getId());
-                            roomInfo.put("questionOrder", currentQuestion.getOrderNum());
-                            roomInfo.put("questionOpen", currentQuestion.getIsOpen());
-                        } else {
-                            roomInfo.put("currentQuestionId", null);
-                            roomInfo.put("questionOrder", "Finalizado");
-                            roomInfo.put("questionOpen", false);
-                        }
-                        
-                        return roomInfo;
-                    } catch (Exception e) {
-                        log.warn("⚠ Error obteniendo info de sala {}: {}", pin, e.getMessage());
-                        return null;
-                    }
+        List<MonitorRoomDTO> rooms = snapshots.stream()
+                .map(room -> {
+                    List<String> playerNames = playerNamesByPin.getOrDefault(room.pin(), List.of());
+                    return new MonitorRoomDTO(room.pin(), playerNames.size(), playerNames, room.currentQuestionId(),
+                            room.questionOrder(), room.questionOpen());
                 })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", System.currentTimeMillis());
-        response.put("activeRooms", activePins.size());
-        response.put("rooms", roomsInfo);
+                .toList();
         
-        log.info("📊 [MONITOR] Devolviendo {} salas activas", activePins.size());
-        return ResponseEntity.ok(response);
+        log.info("📊 [MONITOR] Devolviendo {} salas activas", rooms.size());
+        return ResponseEntity.ok(new MonitorRoomsDTO(System.currentTimeMillis(), rooms.size(), rooms));
     }
 
     /**
@@ -81,42 +76,27 @@ public class RoomMonitorController {
      * Obtener detalles específicos de una sala
      */
     @GetMapping("/room/{pin}")
-    public ResponseEntity<Map<String, Object>> getRoomDetails(@PathVariable String pin) {
+    public ResponseEntity<MonitorRoomDetailDTO> getRoomDetails(@PathVariable String pin) {
         log.debug("📊 [MONITOR] Solicitando detalles de sala {}", pin);
         
-        if (!gameEngineService.isRoomActive(pin)) {
+        GameEngineService.ActiveRoomSnapshot room = gameEngineService.getActiveRoomSnapshot(pin);
+        if (room == null) {
             return ResponseEntity.notFound().build();
         }
         
         try {
-            RoomQuestion currentQuestion = gameEngineService.getCurrentQuestion(pin);
-            List<Player> ranking = gameEngineService.getRanking(pin);
+            List<PlayerSummaryDTO> ranking = playerService.getRankingSummariesByRoom(room.roomId());
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("pin", pin);
-            response.put("isActive", true);
-            response.put("totalPlayers", ranking.size());
-            
-            if (currentQuestion != null) {
-                response.put("currentQuestionId", currentQuestion.getId());
-                response.put("questionOrder", currentQuestion.getOrderNum());
-                response.put("questionText", currentQuestion.getQuestion().getText());
-                response.put("questionOpen", currentQuestion.getIsOpen());
+            String questionText = null;
+            if (room.questionOpen()) {
+                // Texto desde la caché de preguntas del motor (sin la opción correcta)
+                questionText = gameEngineService.getQuestionPayload(room.roomId(), room.currentQuestionId()).text();
             }
             
-            List<Map<String, Object>> playerRanking = ranking.stream()
-                    .map(player -> {
-                        Map<String, Object> playerInfo = new HashMap<>();
-                        playerInfo.put("name", player.getName());
-                        playerInfo.put("score", player.getScore());
-                        return playerInfo;
-                    })
-                    .collect(Collectors.toList());
-            
-            response.put("ranking", playerRanking);
-            
             log.info("📊 [MONITOR] Detalles de sala {} enviados", pin);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new MonitorRoomDetailDTO(pin, true, ranking.size(), room.currentQuestionId(),
+                    room.questionOrder(), questionText,
+                    room.currentQuestionId() != null ? room.questionOpen() : null, ranking));
             
         } catch (Exception e) {
             log.error("❌ [MONITOR] Error obteniendo detalles de sala {}: {}", pin, e.getMessage());
@@ -129,36 +109,27 @@ public class RoomMonitorController {
      * Estadísticas generales del sistema
      */
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getSystemStats() {
+    public ResponseEntity<SystemStatsDTO> getSystemStats() {
         log.debug("📊 [MONITOR] Solicitando estadísticas del sistema");
         
-        Set<String> activePins = gameEngineService.getActiveRoomPins();
-        
-        int totalPlayers = activePins.stream()
-                .mapToInt(pin -> {
-                    try {
-                        return playerService.getPlayersByRoomPin(pin).size();
-                    } catch (Exception e) {
-                        return 0;
-                    }
-                })
-                .sum();
+        int activeRooms = gameEngineService.getActiveRoomPins().size();
+        int totalPlayers = gameEngineService.getActivePlayerCount();
         
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("timestamp", System.currentTimeMillis());
-        stats.put("activeRooms", activePins.size());
-        stats.put("totalPlayers", totalPlayers);
-        stats.put("systemStatus", "RUNNING");
-        stats.put("concurrencyEnabled", true);
+        // Pools de hilos: cola de respuestas (profundidad, rechazos por cola llena o por plazo) y temporizadores
+        AnswerQueueStatsDTO answerQueue = answerAdmissionControl.getStats();
+        ThreadPoolStatsDTO threadPools = new ThreadPoolStatsDTO(answerQueue.maxPoolSize(),
+                timerExecutor instanceof ThreadPoolExecutor timerPool ? timerPool.getCorePoolSize() : null,
+                answerQueue);
         
-        // Información de thread pools (estimado)
-        Map<String, Object> threadPools = new HashMap<>();
-        threadPools.put("answerProcessingPoolSize", 10);
-        threadPools.put("timerPoolSize", 10);
-        stats.put("threadPools", threadPools);
+        SystemStatsDTO stats = new SystemStatsDTO(System.currentTimeMillis(), activeRooms, totalPlayers,
+                "RUNNING", true, threadPools,
+                // Pool de conexiones: ocupación y tiempos de espera por una conexión
+                connectionPoolMetrics.getStats(),
+                // Limpieza de salas abandonadas y memoria retenida por las salas activas
+                roomReaperService.getStats());
         
         log.info("📊 [MONITOR] Estadísticas: {} salas, {} jugadores", 
-                activePins.size(), totalPlayers);
+                activeRooms, totalPlayers);
         
         return ResponseEntity.ok(stats);
     }
@@ -168,11 +139,7 @@ public class RoomMonitorController {
      * Health check endpoint
      */
     @GetMapping("/health")
-    public ResponseEntity<Map<String, String>> healthCheck() {
-        Map<String, String> health = new HashMap<>();
-        health.put("status", "UP");
-        health.put("service", "Quiz Live PSP");
-        health.put("timestamp", String.valueOf(System.currentTimeMillis()));
-        return ResponseEntity.ok(health);
+    public ResponseEntity<HealthDTO> healthCheck() {
+        return ResponseEntity.ok(new HealthDTO("UP", "Quiz Live PSP", String.valueOf(System.currentTimeMillis())));
     }
 }
@@ -0,0 +1,23 @@
+package com.quizlive.controller;
+
+import com.quizlive.dto.TimeSyncDTO;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Hora del servidor para que los clientes sincronicen su reloj y hagan la cuenta atrás de cada pregunta en local
+ */
+@RestController
+public class TimeSyncController {
+
+    @GetMapping("/api/time")
+    public ResponseEntity<TimeSyncDTO> getServerTime(@RequestParam(required = false) Long t0) {
+        long serverReceiveTime = System.currentTimeMillis();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(new TimeSyncDTO(t0, serverReceiveTime, System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,24 @@
+package com.quizlive.dto;
+
+/**
+ * Evento de respuesta de tamaño fijo tal y como se guarda en el registro de respuestas en disco.
+ * Contiene solo identificadores y primitivos para poder serializarse sin reflexión.
+ */
+public record AnswerEvent(
+        long roomId,
+        long roomQuestionId,
+        long playerId,
+        int selectedOption,
+        boolean correct,
+        long responseNanos,
+        int points,
+        long submittedAtMillis
+) {
+
+    /**
+     * Tiempo de respuesta en milisegundos (unidad de la columna answers.response_time)
+     */
+    public long responseMillis() {
+        return responseNanos / 1_000_000L;
+    }
+}
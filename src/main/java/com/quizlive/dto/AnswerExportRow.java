@@ -0,0 +1,21 @@
+package com.quizlive.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila de exportación de respuestas de una sala (proyección JPQL, sin entidades en el contexto de persistencia).
+ */
+public record AnswerExportRow(
+        Long answerId,
+        Integer questionOrder,
+        Long questionId,
+        String questionText,
+        Long playerId,
+        String playerName,
+        Integer selectedOption,
+        Boolean correct,
+        Long responseTimeMillis,
+        Integer points,
+        LocalDateTime submittedAt
+) {
+}
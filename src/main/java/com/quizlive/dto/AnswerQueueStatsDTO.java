@@ -0,0 +1,10 @@
+package com.quizlive.dto;
+
+/**
+ * Cola de respuestas del monitor; los datos del pool son null si el procesamiento no usa ThreadPoolExecutor
+ */
+public record AnswerQueueStatsDTO(Integer corePoolSize, Integer maxPoolSize, Integer activeThreads, Integer queueDepth,
+                                  Integer queueCapacity, long maxQueueDepth, long accepted, long rejectedQueueFull,
+                                  long rejectedDeadline, long expiredInQueue, double avgServiceMillis,
+                                  long estimatedWaitMillis) {
+}
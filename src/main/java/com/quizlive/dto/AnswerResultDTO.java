@@ -0,0 +1,7 @@
+package com.quizlive.dto;
+
+/**
+ * Resultado de una respuesta para el jugador: si acertó, puntos obtenidos y puntuación total
+ */
+public record AnswerResultDTO(Boolean correct, Integer points, Integer totalScore) {
+}
@@ -0,0 +1,16 @@
+package com.quizlive.dto;
+
+/**
+ * Agregados de respuestas (de una sala o de un jugador en una sala) calculados en una sola consulta.
+ * correct y bestResponseTimeMillis llegan como null cuando no hay respuestas.
+ */
+public record AnswerStatsDTO(Long total, Long correct, Long bestResponseTimeMillis) {
+
+    public long correctCount() {
+        return correct != null ? correct : 0L;
+    }
+
+    public double successRate() {
+        return total == null || total == 0 ? 0.0 : (double) correctCount() / total * 100;
+    }
+}
@@ -0,0 +1,7 @@
+package com.quizlive.dto;
+
+/**
+ * Respuestas recibidas a la pregunta en curso (pantalla del anfitrión)
+ */
+public record AnswersCountDTO(int answersCount) {
+}
@@ -0,0 +1,18 @@
+package com.quizlive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumen de bloque para listados: datos básicos y número de preguntas, sin cargar la colección.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlockSummaryDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private long questionCount;
+}
@@ -0,0 +1,10 @@
+package com.quizlive.dto;
+
+/**
+ * Pool de conexiones del monitor; la ocupación es null hasta que Hikari registra el pool
+ */
+public record ConnectionPoolStatsDTO(Integer totalConnections, Integer activeConnections, Integer idleConnections,
+                                     Integer threadsAwaitingConnection, Integer maxConnections, long acquisitions,
+                                     long avgAcquireMicros, long maxAcquireMicros, long slowAcquisitions,
+                                     double avgUsageMillis, long timeouts) {
+}
@@ -0,0 +1,7 @@
+package com.quizlive.dto;
+
+/**
+ * Respuesta del health check del monitor
+ */
+public record HealthDTO(String status, String service, String timestamp) {
+}
@@ -0,0 +1,10 @@
+package com.quizlive.dto;
+
+import java.util.List;
+
+/**
+ * Sala activa en el monitor; questionOrder y currentQuestionId son null cuando ya no quedan preguntas
+ */
+public record MonitorRoomDTO(String pin, int activePlayers, List<String> playerNames, Long currentQuestionId,
+                             Integer questionOrder, boolean questionOpen) {
+}
@@ -0,0 +1,16 @@
+package com.quizlive.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Detalle de una sala activa en el monitor: pregunta en curso y clasificación
+ * Los campos de la pregunta no se envían si no hay ninguna en curso; questionText solo si ya está abierta.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MonitorRoomDetailDTO(String pin, @JsonProperty("isActive") boolean isActive, int totalPlayers,
+                                   Long currentQuestionId, Integer questionOrder, String questionText,
+                                   Boolean questionOpen, List<PlayerSummaryDTO> ranking) {
+}
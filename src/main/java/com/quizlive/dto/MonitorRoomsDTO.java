@@ -0,0 +1,9 @@
+package com.quizlive.dto;
+
+import java.util.List;
+
+/**
+ * Listado de salas activas del monitor
+ */
+public record MonitorRoomsDTO(long timestamp, int activeRooms, List<MonitorRoomDTO> rooms) {
+}
@@ -0,0 +1,10 @@
+package com.quizlive.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Resultado de avanzar a la siguiente pregunta; questionId no se envía cuando la partida ha terminado
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record NextQuestionDTO(boolean finished, Long questionId) {
+}
@@ -0,0 +1,7 @@
+package com.quizlive.dto;
+
+/**
+ * Jugador en la API: solo id, nombre y puntuación (sin la colección de respuestas de la entidad)
+ */
+public record PlayerSummaryDTO(Long id, String name, Integer score) {
+}
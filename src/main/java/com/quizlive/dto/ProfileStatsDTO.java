@@ -0,0 +1,7 @@
+package com.quizlive.dto;
+
+/**
+ * Estadísticas de la página de perfil, calculadas con recuentos en una sola consulta
+ */
+public record ProfileStatsDTO(long blocks, long questions, long roomsHosted, long playersServed, long answersReceived) {
+}
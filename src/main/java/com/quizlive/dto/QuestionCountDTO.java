@@ -0,0 +1,7 @@
+package com.quizlive.dto;
+
+/**
+ * Texto de una pregunta de sala junto a un recuento de respuestas (estadísticas del podio).
+ */
+public record QuestionCountDTO(String questionText, Long count) {
+}
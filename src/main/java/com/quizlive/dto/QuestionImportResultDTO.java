@@ -0,0 +1,31 @@
+package com.quizlive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva: filas importadas, filas rechazadas y el detalle de los errores
+ * (limitado a las primeras filas; errorsTruncated indica que hubo más).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionImportResultDTO {
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+    private long elapsedMillis;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String message;
+    }
+}
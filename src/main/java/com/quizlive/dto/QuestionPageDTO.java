@@ -0,0 +1,19 @@
+package com.quizlive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de preguntas con cursor: nextCursor es el ID a pasar como "after" para la página siguiente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionPageDTO {
+    private List<QuestionDTO> items;
+    private Long nextCursor;
+    private boolean hasMore;
+}
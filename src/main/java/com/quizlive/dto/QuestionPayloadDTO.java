@@ -0,0 +1,24 @@
+package com.quizlive.dto;
+
+import com.quizlive.model.Question;
+import com.quizlive.model.RoomQuestion;
+
+import java.util.List;
+
+/**
+ * Pregunta tal y como la ve un jugador: texto y las cuatro opciones, nunca la opción correcta.
+ * Incluye los instantes de apertura y cierre (epoch millis del servidor) para la cuenta atrás del cliente.
+ * No cambia mientras dura la partida, así que se construye una vez por pregunta y se reutiliza.
+ */
+public record QuestionPayloadDTO(Long id, int orderNum, int totalQuestions, String text, List<String> options,
+                                 int timePerQuestion, long openedAt, long deadline) {
+
+    public static QuestionPayloadDTO of(RoomQuestion roomQuestion, int totalQuestions, int timePerQuestion,
+                                        long openedAt) {
+        Question question = roomQuestion.getQuestion();
+        return new QuestionPayloadDTO(roomQuestion.getId(), roomQuestion.getOrderNum(), totalQuestions,
+                question.getText(),
+                List.of(question.getOption1(), question.getOption2(), question.getOption3(), question.getOption4()),
+                timePerQuestion, openedAt, openedAt + timePerQuestion * 1000L);
+    }
+}
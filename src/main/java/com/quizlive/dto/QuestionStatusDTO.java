@@ -0,0 +1,37 @@
+package com.quizlive.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Estado de la pregunta en curso de una sala, igual para todos los jugadores que hacen polling.
+ * openedAt y deadline son los instantes (epoch millis del servidor) en que se abrió y se cierra la pregunta:
+ * cada cliente calcula el tiempo restante con su reloj sincronizado (/api/time), así el contenido solo cambia
+ * en las transiciones y se puede serializar una única vez.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record QuestionStatusDTO(Long id,
+                                @JsonProperty("isOpen") Boolean isOpen,
+                                boolean finished,
+                                String state,
+                                Long openedAt,
+                                Long deadline,
+                                Integer timePerQuestion,
+                                Boolean nextQuestionSoon) {
+
+    public static QuestionStatusDTO active(Long id, long openedAt, long deadline, int timePerQuestion) {
+        return new QuestionStatusDTO(id, true, false, "ACTIVE", openedAt, deadline, timePerQuestion, null);
+    }
+
+    public static QuestionStatusDTO closed(Long nextId) {
+        return new QuestionStatusDTO(nextId, false, false, "CLOSED", null, null, null, true);
+    }
+
+    public static QuestionStatusDTO waiting(boolean nextQuestionSoon) {
+        return new QuestionStatusDTO(null, null, false, "WAITING", null, null, null, nextQuestionSoon);
+    }
+
+    public static QuestionStatusDTO finishedGame() {
+        return new QuestionStatusDTO(null, null, true, "FINISHED", null, null, null, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.quizlive.dto;
+
+/**
+ * Fila de exportación de la clasificación final: puntuación y agregados de respuestas por jugador.
+ */
+public record RankingExportRow(
+        Long playerId,
+        String playerName,
+        Integer score,
+        Long answered,
+        Long correct,
+        Double avgResponseTimeMillis
+) {
+}
@@ -0,0 +1,9 @@
+package com.quizlive.dto;
+
+/**
+ * Limpieza de salas del monitor: contadores desde el arranque, última pasada y memoria de las salas activas
+ */
+public record ReaperStatsDTO(long runs, long expiredWaitingRooms, long evictedIdleRooms, long finishedOrphanedRooms,
+                             long releasedPins, long lastRunMillis, long lastRunDurationMillis,
+                             long activeRoomsRetainedBytes, int freePins) {
+}
@@ -0,0 +1,54 @@
+package com.quizlive.dto;
+
+import com.quizlive.model.Room;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del historial de salas de un anfitrión con sus agregados (jugadores, respuestas, acierto, tiempos)
+ * El constructor largo es el que usa la consulta agrupada; accuracy y durationSeconds se derivan aquí.
+ */
+@Data
+@NoArgsConstructor
+public class RoomHistoryDTO {
+    private Long id;
+    private String pin;
+    private String blockName;
+    private Room.RoomState state;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Integer numQuestions;
+    private long players;
+    private long answers;
+    private long correctAnswers;
+    private Double accuracy;
+    private Long avgResponseTimeMillis;
+    private Long durationSeconds;
+
+    public RoomHistoryDTO(Long id, String pin, String blockName, Room.RoomState state,
+                          LocalDateTime createdAt, LocalDateTime startedAt, LocalDateTime finishedAt,
+                          Integer numQuestions, Long players, Long answers, Long correctAnswers,
+                          Double avgResponseTimeMillis) {
+        this.id = id;
+        this.pin = pin;
+        this.blockName = blockName;
+        this.state = state;
+        this.createdAt = createdAt;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.numQuestions = numQuestions;
+        this.players = players != null ? players : 0L;
+        this.answers = answers != null ? answers : 0L;
+        // Sin respuestas, SUM y AVG llegan como null
+        this.correctAnswers = correctAnswers != null ? correctAnswers : 0L;
+        this.accuracy = this.answers > 0 ? Math.round(this.correctAnswers * 1000.0 / this.answers) / 10.0 : null;
+        this.avgResponseTimeMillis = avgResponseTimeMillis != null ? Math.round(avgResponseTimeMillis) : null;
+        this.durationSeconds = startedAt != null && finishedAt != null
+                ? Duration.between(startedAt, finishedAt).getSeconds()
+                : null;
+    }
+}
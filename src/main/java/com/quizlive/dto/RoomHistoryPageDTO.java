@@ -0,0 +1,19 @@
+package com.quizlive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página del historial de salas (más recientes primero): nextCursor es el ID a pasar como "before".
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomHistoryPageDTO {
+    private List<RoomHistoryDTO> items;
+    private Long nextCursor;
+    private boolean hasMore;
+}
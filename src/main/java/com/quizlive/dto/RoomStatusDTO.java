@@ -0,0 +1,7 @@
+package com.quizlive.dto;
+
+/**
+ * Estado de una sala para la pantalla de espera de los jugadores
+ */
+public record RoomStatusDTO(String pin, String state) {
+}
@@ -0,0 +1,9 @@
+package com.quizlive.dto;
+
+/**
+ * Estadísticas generales del monitor; los bloques anidados vienen de los componentes que las recogen
+ */
+public record SystemStatsDTO(long timestamp, int activeRooms, int totalPlayers, String systemStatus,
+                             boolean concurrencyEnabled, ThreadPoolStatsDTO threadPools,
+                             ConnectionPoolStatsDTO connectionPool, ReaperStatsDTO reaper) {
+}
@@ -0,0 +1,8 @@
+package com.quizlive.dto;
+
+/**
+ * Pools de hilos del monitor: procesamiento de respuestas (con su cola) y temporizadores de preguntas
+ */
+public record ThreadPoolStatsDTO(Integer answerProcessingPoolSize, Integer timerPoolSize,
+                                 AnswerQueueStatsDTO answerQueue) {
+}
@@ -0,0 +1,10 @@
+package com.quizlive.dto;
+
+/**
+ * Respuesta de sincronización de reloj (estilo NTP), todo en epoch millis.
+ * clientSendTime es el instante que envió el cliente (t0); serverReceiveTime (t1) y serverSendTime (t2) son del
+ * servidor. Con su hora de recepción (t3) el cliente calcula el desfase ((t1 - t0) + (t2 - t3)) / 2 y el retardo
+ * de ida y vuelta (t3 - t0) - (t2 - t1).
+ */
+public record TimeSyncDTO(Long clientSendTime, long serverReceiveTime, long serverSendTime) {
+}
@@ -14,7 +14,10 @@ import java.time.LocalDateTime;
  * Entidad Answer que almacena respuestas del jugador con tiempo y corrección
  */
 @Entity
-@Table(name = "answers")
+@Table(name = "answers",
+        uniqueConstraints = @UniqueConstraint(name = "uq_answers_player_room_question",
+                columnNames = {"player_id", "room_question_id"}),
+        indexes = @Index(name = "idx_answers_room_question_correct", columnList = "room_question_id, is_correct"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,7 +17,7 @@ import java.util.List;
  * Cada bloque pertenece a un usuario y puede usarse en salas según las preguntas disponibles
  */
 @Entity
-@Table(name = "blocks")
+@Table(name = "blocks", indexes = @Index(name = "idx_blocks_owner", columnList = "user_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -62,11 +62,4 @@ public class Block {
         questions.remove(question);
         question.setBlock(null);
     }
-
-    /**
- * Comprobar si este bloque puede eliminarse (ninguna sala lo usa)
- */
-    public boolean canBeDeleted() {
-        return rooms.isEmpty();
-    }
 }
\ No newline at end of file
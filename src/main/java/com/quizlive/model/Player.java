@@ -15,7 +15,7 @@ import java.util.List;
  * Entidad Player que representa un participante en una sala
  */
 @Entity
-@Table(name = "players")
+@Table(name = "players", indexes = @Index(name = "idx_players_room_name", columnList = "room_id, name"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,6 +43,7 @@ public class Player {
 
     // Relaciones
     @OneToMany(mappedBy = "player", cascade = CascadeType.ALL, orphanRemoval = true)
+    @com.fasterxml.jackson.annotation.JsonIgnore
     private List<Answer> answers = new ArrayList<>();
 
     /**
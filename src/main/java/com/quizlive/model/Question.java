@@ -12,7 +12,7 @@ import lombok.NoArgsConstructor;
  * Entidad Question con 4 opciones y validación de respuesta correcta
  */
 @Entity
-@Table(name = "questions")
+@Table(name = "questions", indexes = @Index(name = "idx_questions_block", columnList = "block_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,7 +16,7 @@ import java.util.List;
  * Soporta estados: WAITING, RUNNING, FINISHED
  */
 @Entity
-@Table(name = "rooms")
+@Table(name = "rooms", indexes = @Index(name = "idx_rooms_state_created", columnList = "state, created_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,7 +26,8 @@ public class Room {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false, length = 6)
+    // Se libera (null) cuando la sala finalizada caduca, para poder reutilizar el PIN
+    @Column(unique = true, length = 6)
     private String pin;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -114,6 +115,27 @@ public class Room {
         this.finishedAt = LocalDateTime.now();
     }
 
+    /**
+ * Caducar una sala que nunca llegó a empezar
+ */
+    public void expire() {
+        if (!isWaiting()) {
+            throw new IllegalStateException("Only rooms in WAITING state can expire");
+        }
+        this.state = RoomState.FINISHED;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    /**
+ * Liberar el PIN de una sala finalizada para que otra sala pueda usarlo
+ */
+    public void releasePin() {
+        if (!isFinished()) {
+            throw new IllegalStateException("Only finished rooms can release their PIN");
+        }
+        this.pin = null;
+    }
+
     // Enumeraciones
     public enum RoomState {
         WAITING,
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
  * Mantiene el orden y el estado abierto/cerrado de cada pregunta en el juego
  */
 @Entity
-@Table(name = "room_questions")
+@Table(name = "room_questions",
+        indexes = @Index(name = "idx_room_questions_room_order", columnList = "room_id, order_num"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
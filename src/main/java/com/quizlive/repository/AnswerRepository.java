@@ -1,13 +1,22 @@
 package com.quizlive.repository;
 
+import com.quizlive.dto.AnswerExportRow;
+import com.quizlive.dto.AnswerStatsDTO;
+import com.quizlive.dto.QuestionCountDTO;
+import com.quizlive.dto.RankingExportRow;
 import com.quizlive.model.Answer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AnswerRepository extends JpaRepository<Answer, Long> {
@@ -25,16 +34,35 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
 
     long countByRoomQuestionId(Long roomQuestionId);
 
-    @Query("SELECT a FROM Answer a WHERE a.roomQuestion.room.id = :roomId")
-    List<Answer> findByRoomId(@Param("roomId") Long roomId);
+    // Queries para estadísticas del podio: proyecciones con el texto de la pregunta ya unido (sin cargas perezosas)
+    @Query("SELECT new com.quizlive.dto.QuestionCountDTO(q.text, COUNT(a)) "
+            + "FROM Answer a JOIN a.roomQuestion rq JOIN rq.question q "
+            + "WHERE rq.room.id = :roomId AND a.isCorrect = :correct "
+            + "GROUP BY rq.id, q.text ORDER BY COUNT(a) DESC")
+    List<QuestionCountDTO> findQuestionCountsByRoom(@Param("roomId") Long roomId,
+                                                    @Param("correct") boolean correct,
+                                                    Pageable pageable);
 
-    // Queries para estadísticas del podio
-    @Query("SELECT a.roomQuestion, COUNT(a) FROM Answer a WHERE a.roomQuestion.room.id = :roomId AND a.isCorrect = false GROUP BY a.roomQuestion ORDER BY COUNT(a) DESC")
-    List<Object[]> findMostFailedQuestionsByRoom(@Param("roomId") Long roomId);
+    @Query("SELECT new com.quizlive.dto.AnswerStatsDTO(COUNT(a), SUM(CASE WHEN a.isCorrect = true THEN 1L ELSE 0L END), MIN(a.responseTime)) "
+            + "FROM Answer a WHERE a.roomQuestion.room.id = :roomId")
+    AnswerStatsDTO getStatsByRoom(@Param("roomId") Long roomId);
 
-    @Query("SELECT a.roomQuestion, COUNT(a) FROM Answer a WHERE a.roomQuestion.room.id = :roomId AND a.isCorrect = true GROUP BY a.roomQuestion ORDER BY COUNT(a) DESC")
-    List<Object[]> findMostCorrectQuestionsByRoom(@Param("roomId") Long roomId);
+    @Query("SELECT new com.quizlive.dto.AnswerStatsDTO(COUNT(a), SUM(CASE WHEN a.isCorrect = true THEN 1L ELSE 0L END), MIN(a.responseTime)) "
+            + "FROM Answer a WHERE a.player.id = :playerId AND a.roomQuestion.room.id = :roomId")
+    AnswerStatsDTO getStatsByPlayerInRoom(@Param("playerId") Long playerId, @Param("roomId") Long roomId);
 
-    @Query("SELECT a FROM Answer a WHERE a.player.id = :playerId AND a.roomQuestion.room.id = :roomId ORDER BY a.roomQuestion.orderNum")
-    List<Answer> findPlayerAnswersInRoom(@Param("playerId") Long playerId, @Param("roomId") Long roomId);
-}
\ No newline at end of file
+    // Exportaciones: cursor de solo avance sobre proyecciones; consumir dentro de una transacción y cerrar el Stream
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.quizlive.dto.AnswerExportRow(a.id, rq.orderNum, q.id, q.text, p.id, p.name, "
+            + "a.selectedOption, a.isCorrect, a.responseTime, a.pointsEarned, a.submittedAt) "
+            + "FROM Answer a JOIN a.roomQuestion rq JOIN rq.question q JOIN a.player p "
+            + "WHERE rq.room.id = :roomId ORDER BY rq.orderNum ASC, a.id ASC")
+    Stream<AnswerExportRow> streamExportRowsByRoomId(@Param("roomId") Long roomId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.quizlive.dto.RankingExportRow(p.id, p.name, p.score, COUNT(a.id), "
+            + "SUM(CASE WHEN a.isCorrect = true THEN 1L ELSE 0L END), AVG(a.responseTime)) "
+            + "FROM Player p LEFT JOIN p.answers a WHERE p.room.id = :roomId "
+            + "GROUP BY p.id, p.name, p.score ORDER BY p.score DESC, p.id ASC")
+    Stream<RankingExportRow> streamRankingRowsByRoomId(@Param("roomId") Long roomId);
+}
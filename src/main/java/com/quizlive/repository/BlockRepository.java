@@ -1,18 +1,32 @@
 package com.quizlive.repository;
 
+import com.quizlive.dto.BlockSummaryDTO;
 import com.quizlive.model.Block;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BlockRepository extends JpaRepository<Block, Long> {
 
     List<Block> findByOwnerId(Long userId);
 
+    // Listados: número de preguntas por bloque en una sola consulta agrupada
+    @Query("SELECT new com.quizlive.dto.BlockSummaryDTO(b.id, b.name, b.description, COUNT(q)) "
+            + "FROM Block b LEFT JOIN b.questions q WHERE b.owner.id = :userId "
+            + "GROUP BY b.id, b.name, b.description ORDER BY b.id ASC")
+    List<BlockSummaryDTO> findSummariesByOwnerId(@Param("userId") Long userId);
+
+    // Vista de detalle: bloque y preguntas en una sola SELECT
+    @EntityGraph(attributePaths = "questions")
+    @Query("SELECT b FROM Block b WHERE b.id = :id")
+    Optional<Block> findWithQuestionsById(@Param("id") Long id);
+
     @Query("SELECT COUNT(b) > 0 FROM Block b WHERE b.id = :blockId AND b.owner.id = :userId")
     boolean isOwnedByUser(@Param("blockId") Long blockId, @Param("userId") Long userId);
 }
\ No newline at end of file
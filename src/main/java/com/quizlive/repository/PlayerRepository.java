@@ -1,11 +1,13 @@
 package com.quizlive.repository;
 
+import com.quizlive.dto.PlayerSummaryDTO;
 import com.quizlive.model.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +24,22 @@ public interface PlayerRepository extends JpaRepository<Player, Long> {
 
     long countByRoomId(Long roomId);
 
+    // Monitor: nombres de los jugadores de varias salas en una sola consulta (pin, nombre)
+    @Query("SELECT r.pin, p.name FROM Player p JOIN p.room r WHERE r.pin IN :pins ORDER BY p.id ASC")
+    List<Object[]> findNamesByRoomPins(@Param("pins") Collection<String> pins);
+
+    // API: jugadores de una sala sin cargar las entidades (ni sus respuestas)
+    @Query("SELECT new com.quizlive.dto.PlayerSummaryDTO(p.id, p.name, p.score) FROM Player p " +
+            "WHERE p.room.id = :roomId ORDER BY p.id ASC")
+    List<PlayerSummaryDTO> findSummariesByRoomId(@Param("roomId") Long roomId);
+
+    @Query("SELECT new com.quizlive.dto.PlayerSummaryDTO(p.id, p.name, p.score) FROM Player p " +
+            "WHERE p.room.id = :roomId ORDER BY p.score DESC, p.id ASC")
+    List<PlayerSummaryDTO> findRankingSummariesByRoomId(@Param("roomId") Long roomId);
+
+    @Query("SELECT p.id FROM Player p WHERE p.room.id = :roomId")
+    List<Long> findIdsByRoomId(@Param("roomId") Long roomId);
+
     @Query("SELECT p FROM Player p WHERE p.room.pin = :pin AND p.name = :name")
     Optional<Player> findByRoomPinAndName(@Param("pin") String pin, @Param("name") String name);
 }
\ No newline at end of file
@@ -1,10 +1,20 @@
 package com.quizlive.repository;
 
+import com.quizlive.dto.QuestionDTO;
 import com.quizlive.model.Question;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, Long> {
@@ -15,5 +25,60 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
 
     void deleteByBlockId(Long blockId);
 
-    List<Question> findByBlock_Owner_Id(Long userId);
-}
\ No newline at end of file
+    // Página del banco de preguntas: proyección a DTO con el nombre del bloque en la misma SELECT y cursor por ID
+    @Query("SELECT new com.quizlive.dto.QuestionDTO(q.id, b.id, b.name, q.text, q.option1, q.option2, q.option3, q.option4, q.correctOption) "
+            + "FROM Question q JOIN q.block b "
+            + "WHERE b.owner.id = :userId AND q.id > :afterId "
+            + "AND (:blockId IS NULL OR b.id = :blockId) "
+            + "AND (:pattern IS NULL OR LOWER(q.text) LIKE :pattern ESCAPE '!' "
+            + "OR LOWER(q.option1) LIKE :pattern ESCAPE '!' OR LOWER(q.option2) LIKE :pattern ESCAPE '!' "
+            + "OR LOWER(q.option3) LIKE :pattern ESCAPE '!' OR LOWER(q.option4) LIKE :pattern ESCAPE '!') "
+            + "ORDER BY q.id ASC")
+    List<QuestionDTO> findPageByOwner(@Param("userId") Long userId,
+                                      @Param("blockId") Long blockId,
+                                      @Param("pattern") String pattern,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @Query("SELECT new com.quizlive.dto.QuestionDTO(q.id, b.id, b.name, q.text, q.option1, q.option2, q.option3, q.option4, q.correctOption) "
+            + "FROM Question q JOIN q.block b WHERE b.owner.id = :userId")
+    List<QuestionDTO> findSearchDocumentsByOwner(@Param("userId") Long userId);
+
+    @Query("SELECT new com.quizlive.dto.QuestionDTO(q.id, b.id, b.name, q.text, q.option1, q.option2, q.option3, q.option4, q.correctOption) "
+            + "FROM Question q JOIN q.block b WHERE q.id IN :ids AND b.owner.id = :userId")
+    List<QuestionDTO> findDtosByIdsAndOwner(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query("SELECT q.id FROM Question q WHERE q.block.id = :blockId")
+    List<Long> findIdsByBlockId(@Param("blockId") Long blockId);
+
+    @Query("SELECT q.id FROM Question q WHERE q.block.id = :blockId AND q.id IN :ids")
+    List<Long> findIdsByBlockIdAndIdIn(@Param("blockId") Long blockId, @Param("ids") Collection<Long> ids);
+
+    // Exportación de un bloque: cursor de solo avance, consumir dentro de una transacción
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.quizlive.dto.QuestionDTO(q.id, b.id, b.name, q.text, q.option1, q.option2, q.option3, q.option4, q.correctOption) "
+            + "FROM Question q JOIN q.block b WHERE b.id = :blockId ORDER BY q.id ASC")
+    Stream<QuestionDTO> streamExportRowsByBlockId(@Param("blockId") Long blockId);
+
+    @Query("SELECT q.id FROM Question q WHERE q.block.owner.id = :userId AND q.id IN :ids")
+    List<Long> findIdsByOwnerAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    // Operaciones en bloque resueltas en una sola sentencia SQL (sin cargar entidades)
+    @Modifying
+    @Query(value = "INSERT INTO questions (block_id, text, option1, option2, option3, option4, correct_option) "
+            + "SELECT :targetBlockId, text, option1, option2, option3, option4, correct_option "
+            + "FROM questions WHERE block_id = :sourceBlockId ORDER BY id", nativeQuery = true)
+    int copyQuestionsToBlock(@Param("sourceBlockId") Long sourceBlockId, @Param("targetBlockId") Long targetBlockId);
+
+    // Mismo sufijo que la duplicación individual, salvo que el texto no quepa en la columna
+    @Modifying
+    @Query(value = "INSERT INTO questions (block_id, text, option1, option2, option3, option4, correct_option) "
+            + "SELECT block_id, CASE WHEN CHAR_LENGTH(text) <= 992 THEN CONCAT(text, ' (Copia)') ELSE text END, "
+            + "option1, option2, option3, option4, correct_option "
+            + "FROM questions WHERE id IN (:ids) ORDER BY id", nativeQuery = true)
+    int duplicateQuestionsByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Question q WHERE q.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
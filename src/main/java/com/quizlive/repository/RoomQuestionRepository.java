@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,9 +21,14 @@ public interface RoomQuestionRepository extends JpaRepository<RoomQuestion, Long
 
     long countByRoomId(Long roomId);
 
+    boolean existsByQuestionIdIn(Collection<Long> questionIds);
+
     @Query("SELECT rq FROM RoomQuestion rq WHERE rq.room.id = :roomId AND rq.startTime IS NULL ORDER BY rq.orderNum ASC")
     List<RoomQuestion> findUnopenedQuestionsByRoomId(@Param("roomId") Long roomId);
 
+    @Query("SELECT rq FROM RoomQuestion rq JOIN FETCH rq.question WHERE rq.room.id = :roomId ORDER BY rq.orderNum ASC")
+    List<RoomQuestion> findByRoomIdWithQuestion(@Param("roomId") Long roomId);
+
     @Query("SELECT rq FROM RoomQuestion rq JOIN FETCH rq.question WHERE rq.id = :id")
     Optional<RoomQuestion> findByIdWithQuestion(@Param("id") Long id);
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.quizlive.repository;
 
+import com.quizlive.dto.RoomHistoryDTO;
 import com.quizlive.model.Room;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,5 +24,27 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
 
     boolean existsByPin(String pin);
 
+    boolean existsByBlockId(Long blockId);
+
+    // Historial del anfitrión en dos pasos: primero los IDs de la página (cursor sobre la clave primaria)...
+    @Query("SELECT r.id FROM Room r WHERE r.host.id = :hostId AND r.id < :beforeId ORDER BY r.id DESC")
+    List<Long> findHistoryIdsByHost(@Param("hostId") Long hostId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // ...y después los agregados de solo esas salas en una única consulta agrupada
+    @Query("SELECT new com.quizlive.dto.RoomHistoryDTO(r.id, r.pin, b.name, r.state, r.createdAt, r.startedAt, "
+            + "r.finishedAt, r.numQuestions, COUNT(DISTINCT p.id), COUNT(a.id), "
+            + "SUM(CASE WHEN a.isCorrect = true THEN 1L ELSE 0L END), AVG(a.responseTime)) "
+            + "FROM Room r JOIN r.block b LEFT JOIN r.players p LEFT JOIN p.answers a "
+            + "WHERE r.id IN :ids "
+            + "GROUP BY r.id, r.pin, b.name, r.state, r.createdAt, r.startedAt, r.finishedAt, r.numQuestions "
+            + "ORDER BY r.id DESC")
+    List<RoomHistoryDTO> findHistoryByIds(@Param("ids") Collection<Long> ids);
+
     List<Room> findByStateIn(List<Room.RoomState> states);
+
+    List<Room> findByStateAndCreatedAtBefore(Room.RoomState state, LocalDateTime cutoff);
+
+    List<Room> findByStateAndStartedAtBefore(Room.RoomState state, LocalDateTime cutoff);
+
+    List<Room> findByStateAndFinishedAtBeforeAndPinIsNotNull(Room.RoomState state, LocalDateTime cutoff);
 }
\ No newline at end of file
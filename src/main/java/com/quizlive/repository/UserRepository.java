@@ -1,7 +1,10 @@
 package com.quizlive.repository;
 
+import com.quizlive.dto.ProfileStatsDTO;
 import com.quizlive.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -16,4 +19,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Perfil: todos los recuentos en un único viaje a la base de datos (subconsultas escalares)
+    @Query("SELECT new com.quizlive.dto.ProfileStatsDTO("
+            + "(SELECT COUNT(b) FROM Block b WHERE b.owner.id = u.id), "
+            + "(SELECT COUNT(q) FROM Question q WHERE q.block.owner.id = u.id), "
+            + "(SELECT COUNT(r) FROM Room r WHERE r.host.id = u.id), "
+            + "(SELECT COUNT(p) FROM Player p WHERE p.room.host.id = u.id), "
+            + "(SELECT COUNT(a) FROM Answer a WHERE a.roomQuestion.room.host.id = u.id)) "
+            + "FROM User u WHERE u.id = :userId")
+    Optional<ProfileStatsDTO> getProfileStats(@Param("userId") Long userId);
+}
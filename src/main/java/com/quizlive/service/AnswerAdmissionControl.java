@@ -0,0 +1,130 @@
+package com.quizlive.service;
+
+import com.quizlive.dto.AnswerQueueStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Control de admisión de la cola de respuestas (pool answerProcessingExecutor, con cola acotada)
+ *
+ * Antes de encolar una respuesta se estima su espera con la profundidad de la cola y el tiempo medio de
+ * proceso: si no llegaría antes del cierre de la pregunta se rechaza sin ocupar la cola. Con la cola llena
+ * el pool la rechaza y se pide al cliente que reintente. Si al salir de la cola la pregunta ya ha cerrado,
+ * se descarta sin consultar la base de datos.
+ */
+@Component
+@Slf4j
+public class AnswerAdmissionControl {
+
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private static final long SHUTDOWN_RETRY_AFTER_SECONDS = 5;
+    // Estimación inicial hasta tener muestras reales
+    private static final long INITIAL_SERVICE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final ExecutorService executor;
+    private final ThreadPoolExecutor pool;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedDeadline = new LongAdder();
+    private final LongAdder expiredInQueue = new LongAdder();
+    private final LongAccumulator maxQueueDepth = new LongAccumulator(Math::max, 0);
+    // Media móvil exponencial (peso 1/8) del tiempo de proceso; una actualización perdida entre hilos no importa
+    private volatile long avgServiceNanos = INITIAL_SERVICE_NANOS;
+
+    public AnswerAdmissionControl(@Qualifier("answerProcessingExecutor") ExecutorService executor) {
+        this.executor = executor;
+        this.pool = executor instanceof ThreadPoolExecutor threadPool ? threadPool : null;
+    }
+
+    /**
+     * Encolar el procesamiento de una respuesta cuya pregunta cierra en deadlineMillis (epoch millis)
+     * Lanza AnswerRejectedException si la cola está llena o la respuesta no llegaría a tiempo.
+     */
+    public <T> CompletableFuture<T> submit(long deadlineMillis, Supplier<T> task) {
+        long now = System.currentTimeMillis();
+        long estimatedWaitMillis = estimateWaitMillis();
+        if (deadlineMillis != NO_DEADLINE && now + estimatedWaitMillis > deadlineMillis) {
+            rejectedDeadline.increment();
+            log.warn("Answer rejected: estimated wait {}ms exceeds question deadline (in {}ms)",
+                    estimatedWaitMillis, deadlineMillis - now);
+            throw new AnswerRejectedException(AnswerRejectedException.Reason.DEADLINE, 0,
+                    "Question will close before this answer can be processed");
+        }
+
+        try {
+            CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> run(deadlineMillis, task), executor);
+            accepted.increment();
+            if (pool != null) {
+                maxQueueDepth.accumulate(pool.getQueue().size());
+            }
+            return future;
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                throw new AnswerRejectedException(AnswerRejectedException.Reason.SHUTTING_DOWN,
+                        SHUTDOWN_RETRY_AFTER_SECONDS, "Answer processing is shutting down");
+            }
+            rejectedQueueFull.increment();
+            long retryAfter = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(estimatedWaitMillis + 999));
+            log.warn("Answer rejected: queue full ({} queued), retry after {}s", queueDepth(), retryAfter);
+            throw new AnswerRejectedException(AnswerRejectedException.Reason.QUEUE_FULL, retryAfter,
+                    "Too many answers in progress");
+        }
+    }
+
+    private <T> T run(long deadlineMillis, Supplier<T> task) {
+        if (deadlineMillis != NO_DEADLINE && System.currentTimeMillis() > deadlineMillis) {
+            // Se rechazaría por pregunta cerrada: no gastar consultas en ella
+            expiredInQueue.increment();
+            throw new IllegalStateException("Question is no longer accepting answers");
+        }
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            avgServiceNanos += (elapsed - avgServiceNanos) >> 3;
+        }
+    }
+
+    /**
+     * Espera estimada de una respuesta que se encolase ahora: rondas de cola por delante × tiempo medio
+     */
+    public long estimateWaitMillis() {
+        if (pool == null) {
+            return 0;
+        }
+        int threads = Math.max(1, pool.getMaximumPoolSize());
+        long rounds = (queueDepth() + pool.getActiveCount()) / threads + 1;
+        return TimeUnit.NANOSECONDS.toMillis(rounds * avgServiceNanos);
+    }
+
+    private int queueDepth() {
+        return pool != null ? pool.getQueue().size() : 0;
+    }
+
+    /**
+     * Estado de la cola y contadores de admisión desde el arranque
+     */
+    public AnswerQueueStatsDTO getStats() {
+        return new AnswerQueueStatsDTO(
+                pool != null ? pool.getCorePoolSize() : null,
+                pool != null ? pool.getMaximumPoolSize() : null,
+                pool != null ? pool.getActiveCount() : null,
+                pool != null ? pool.getQueue().size() : null,
+                pool != null ? pool.getQueue().size() + pool.getQueue().remainingCapacity() : null,
+                maxQueueDepth.get(), accepted.sum(), rejectedQueueFull.sum(), rejectedDeadline.sum(),
+                expiredInQueue.sum(), avgServiceNanos / 1_000_000.0, estimateWaitMillis());
+    }
+}
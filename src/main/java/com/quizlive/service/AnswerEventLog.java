@@ -0,0 +1,356 @@
+package com.quizlive.service;
+
+import com.quizlive.dto.AnswerEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Registro de respuestas en disco: append-only, segmentado y mapeado en memoria
+ *
+ * Cada respuesta ocupa un registro binario de tamaño fijo, identificado por un número de secuencia global.
+ * El segmento cuyo fichero se llama answers-&lt;base&gt;.seg contiene las secuencias [base, base + capacidad).
+ * La marca de commit se escribe la última, de modo que tras una caída se recupera hasta el último registro completo.
+ *
+ * La carga en la tabla answers la realiza {@link AnswerEventLogTailer}, que avanza el checkpoint con {@link #markLoaded(long)}.
+ * La entrega a base de datos es al-menos-una-vez: si el proceso cae entre el commit del lote y el checkpoint,
+ * ese lote se vuelve a cargar al arrancar.
+ */
+@Component
+@Slf4j
+public class AnswerEventLog {
+
+    static final int RECORD_SIZE = 56;
+
+    private static final int COMMIT_MARKER = 0x51414E53; // "QANS"
+    private static final int FLAG_CORRECT = 1;
+    private static final String SEGMENT_PREFIX = "answers-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "loaded.checkpoint";
+    private static final String DEAD_LETTER_FILE = "dead-letter.csv";
+
+    // Desplazamientos dentro de un registro
+    private static final int OFF_MARKER = 0;
+    private static final int OFF_OPTION = 4;
+    private static final int OFF_ROOM = 8;
+    private static final int OFF_ROOM_QUESTION = 16;
+    private static final int OFF_PLAYER = 24;
+    private static final int OFF_RESPONSE_NANOS = 32;
+    private static final int OFF_POINTS = 40;
+    private static final int OFF_FLAGS = 44;
+    private static final int OFF_SUBMITTED_AT = 48;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentRecords;
+    private final boolean retainSegments;
+
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    // Siguiente secuencia a escribir: todo lo anterior está completo y es visible para los lectores
+    private volatile long committedSequence;
+    private volatile long loadedSequence;
+
+    public AnswerEventLog(@Value("${quizlive.answer-log.enabled:false}") boolean enabled,
+                          @Value("${quizlive.answer-log.dir:data/answer-log}") String directory,
+                          @Value("${quizlive.answer-log.segment-records:1048576}") int segmentRecords,
+                          @Value("${quizlive.answer-log.retain-segments:false}") boolean retainSegments) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentRecords = segmentRecords;
+        this.retainSegments = retainSegments;
+    }
+
+    private static final class Segment {
+        private final long baseSequence;
+        private final int capacity;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long baseSequence, int capacity, Path path, MappedByteBuffer buffer) {
+            this.baseSequence = baseSequence;
+            this.capacity = capacity;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        private long endSequence() {
+            return baseSequence + capacity;
+        }
+
+        private int offsetOf(long sequence) {
+            return (int) (sequence - baseSequence) * RECORD_SIZE;
+        }
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path path : (Iterable<Path>) files.filter(AnswerEventLog::isSegmentFile)::iterator) {
+                    Segment segment = mapSegment(path, baseSequenceOf(path), 0);
+                    segments.put(segment.baseSequence, segment);
+                }
+            }
+            committedSequence = recoverCommittedSequence();
+            loadedSequence = readCheckpoint();
+            log.info("[ANSWER-LOG] Registro abierto en {} ({} segmentos, secuencia {} escrita, {} cargada)",
+                    directory.toAbsolutePath(), segments.size(), committedSequence, loadedSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open answer log at " + directory, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        force();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Añadir una respuesta al registro y devolver su número de secuencia
+     */
+    public synchronized long append(AnswerEvent event) {
+        if (!enabled) {
+            throw new IllegalStateException("Answer log is disabled");
+        }
+        long sequence = committedSequence;
+        Segment segment = segmentFor(sequence);
+        if (segment == null) {
+            segment = createSegment(sequence);
+        }
+
+        int offset = segment.offsetOf(sequence);
+        MappedByteBuffer buffer = segment.buffer;
+        buffer.putInt(offset + OFF_OPTION, event.selectedOption());
+        buffer.putLong(offset + OFF_ROOM, event.roomId());
+        buffer.putLong(offset + OFF_ROOM_QUESTION, event.roomQuestionId());
+        buffer.putLong(offset + OFF_PLAYER, event.playerId());
+        buffer.putLong(offset + OFF_RESPONSE_NANOS, event.responseNanos());
+        buffer.putInt(offset + OFF_POINTS, event.points());
+        buffer.putInt(offset + OFF_FLAGS, event.correct() ? FLAG_CORRECT : 0);
+        buffer.putLong(offset + OFF_SUBMITTED_AT, event.submittedAtMillis());
+        // La marca va la última: un registro sin marca se considera incompleto al recuperar
+        buffer.putInt(offset + OFF_MARKER, COMMIT_MARKER);
+
+        committedSequence = sequence + 1;
+        return sequence;
+    }
+
+    /**
+     * Secuencia siguiente a la última respuesta escrita (límite superior exclusivo para lectores)
+     */
+    public long getCommittedSequence() {
+        return committedSequence;
+    }
+
+    /**
+     * Secuencia hasta la que las respuestas ya están cargadas en base de datos
+     */
+    public long getLoadedSequence() {
+        return loadedSequence;
+    }
+
+    /**
+     * Recorrer las respuestas en [fromSequence, toSequence) en orden de escritura
+     */
+    public void read(long fromSequence, long toSequence, Consumer<AnswerEvent> consumer) {
+        long end = Math.min(toSequence, committedSequence);
+        long sequence = fromSequence;
+        while (sequence < end) {
+            Segment segment = segmentFor(sequence);
+            if (segment == null) {
+                // Segmento ya liberado: saltar al siguiente disponible
+                Long next = segments.higherKey(sequence);
+                if (next == null) {
+                    return;
+                }
+                sequence = next;
+                continue;
+            }
+            long segmentEnd = Math.min(end, segment.endSequence());
+            for (; sequence < segmentEnd; sequence++) {
+                consumer.accept(decode(segment.buffer, segment.offsetOf(sequence)));
+            }
+        }
+    }
+
+    /**
+     * Reproducir todas las respuestas retenidas de una sala (análisis o reconstrucción de estado)
+     */
+    public void replayRoom(long roomId, Consumer<AnswerEvent> consumer) {
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        if (first == null) {
+            return;
+        }
+        read(first.getKey(), committedSequence, event -> {
+            if (event.roomId() == roomId) {
+                consumer.accept(event);
+            }
+        });
+    }
+
+    /**
+     * Registrar que todo lo anterior a sequence ya está en base de datos y liberar los segmentos completos
+     */
+    public synchronized void markLoaded(long sequence) {
+        if (sequence <= loadedSequence) {
+            return;
+        }
+        loadedSequence = sequence;
+        writeCheckpoint(sequence);
+
+        if (retainSegments) {
+            return;
+        }
+        for (Segment segment : segments.headMap(sequence, false).values()) {
+            // Nunca se libera el segmento donde se está escribiendo
+            if (segment.endSequence() <= sequence && segment.endSequence() <= committedSequence
+                    && segments.higherKey(segment.baseSequence) != null) {
+                segments.remove(segment.baseSequence);
+                try {
+                    Files.deleteIfExists(segment.path);
+                    log.debug("[ANSWER-LOG] Segmento {} liberado", segment.path.getFileName());
+                } catch (IOException e) {
+                    log.warn("[ANSWER-LOG] No se pudo borrar el segmento {}: {}", segment.path, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Apartar una respuesta que la base de datos rechaza (jugador o pregunta borrados, clave duplicada...)
+     * Se añade como línea CSV a dead-letter.csv, junto a los segmentos, para revisarla a mano; el tailer sigue.
+     */
+    public synchronized void deadLetter(AnswerEvent event, String reason) {
+        String line = String.join(",",
+                Long.toString(event.roomId()), Long.toString(event.roomQuestionId()), Long.toString(event.playerId()),
+                Integer.toString(event.selectedOption()), Boolean.toString(event.correct()),
+                Long.toString(event.responseNanos()), Integer.toString(event.points()),
+                Long.toString(event.submittedAtMillis()),
+                "\"" + String.valueOf(reason).replaceAll("[\\r\\n\"]+", " ") + "\"") + System.lineSeparator();
+        Path deadLetter = directory.resolve(DEAD_LETTER_FILE);
+        try {
+            Files.writeString(deadLetter, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write answer log dead letter " + deadLetter, e);
+        }
+    }
+
+    /**
+     * Forzar a disco las páginas modificadas (el tailer lo invoca tras cada carga)
+     */
+    public void force() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+    }
+
+    private Segment segmentFor(long sequence) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(sequence);
+        if (entry == null || sequence >= entry.getValue().endSequence()) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    private Segment createSegment(long baseSequence) {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, baseSequence, SEGMENT_SUFFIX));
+        try {
+            Segment segment = mapSegment(path, baseSequence, segmentRecords);
+            segments.put(baseSequence, segment);
+            log.info("[ANSWER-LOG] Nuevo segmento {} ({} registros)", path.getFileName(), segment.capacity);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create answer log segment " + path, e);
+        }
+    }
+
+    private Segment mapSegment(Path path, long baseSequence, int records) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = records > 0 ? (long) records * RECORD_SIZE : channel.size();
+            // El mapeo sigue siendo válido después de cerrar el canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(baseSequence, (int) (size / RECORD_SIZE), path, buffer);
+        }
+    }
+
+    private long recoverCommittedSequence() {
+        Map.Entry<Long, Segment> last = segments.lastEntry();
+        if (last == null) {
+            return 0;
+        }
+        Segment segment = last.getValue();
+        long sequence = segment.baseSequence;
+        while (sequence < segment.endSequence()
+                && segment.buffer.getInt(segment.offsetOf(sequence) + OFF_MARKER) == COMMIT_MARKER) {
+            sequence++;
+        }
+        return sequence;
+    }
+
+    private AnswerEvent decode(ByteBuffer buffer, int offset) {
+        return new AnswerEvent(
+                buffer.getLong(offset + OFF_ROOM),
+                buffer.getLong(offset + OFF_ROOM_QUESTION),
+                buffer.getLong(offset + OFF_PLAYER),
+                buffer.getInt(offset + OFF_OPTION),
+                (buffer.getInt(offset + OFF_FLAGS) & FLAG_CORRECT) != 0,
+                buffer.getLong(offset + OFF_RESPONSE_NANOS),
+                buffer.getInt(offset + OFF_POINTS),
+                buffer.getLong(offset + OFF_SUBMITTED_AT));
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            Map.Entry<Long, Segment> first = segments.firstEntry();
+            return first != null ? first.getKey() : 0;
+        }
+        return Long.parseLong(Files.readString(checkpoint, StandardCharsets.US_ASCII).trim());
+    }
+
+    private void writeCheckpoint(long sequence) {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try {
+            Files.writeString(tmp, Long.toString(sequence), StandardCharsets.US_ASCII);
+            Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write answer log checkpoint", e);
+        }
+    }
+
+    private static boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long baseSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,198 @@
+package com.quizlive.service;
+
+import com.quizlive.dto.AnswerEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga en segundo plano del registro de respuestas en la tabla answers
+ *
+ * Lee desde el checkpoint hasta la última secuencia escrita, inserta por lotes JDBC
+ * y aplica en la misma transacción la suma de puntos de cada jugador.
+ * Cada lote va en su propia transacción (REQUIRES_NEW) aunque drain() se llame desde otra, como finishGame:
+ * el checkpoint solo avanza cuando el lote ya está confirmado.
+ * Si la base de datos rechaza un lote por integridad, se reintenta respuesta a respuesta y las que siguen
+ * fallando se apartan con {@link AnswerEventLog#deadLetter}: una respuesta mala no detiene la carga del resto.
+ */
+@Component
+@Slf4j
+public class AnswerEventLogTailer {
+
+    private static final String INSERT_ANSWER =
+            "INSERT INTO answers (player_id, room_question_id, selected_option, response_time, is_correct, points_earned, submitted_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String ADD_PLAYER_SCORE = "UPDATE players SET score = score + ? WHERE id = ?";
+    private static final String SELECT_LOADED_ANSWERS =
+            "SELECT player_id, room_question_id FROM answers WHERE room_question_id IN (%s)";
+
+    private final AnswerEventLog answerEventLog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService answerLogExecutor;
+    private final long intervalMillis;
+    private final int batchSize;
+    // Secuencias anteriores a esta ya estaban escritas al arrancar: pueden estar cargadas sin checkpoint
+    private long recoveryEndSequence;
+
+    public AnswerEventLogTailer(AnswerEventLog answerEventLog,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Qualifier("answerLogExecutor") ScheduledExecutorService answerLogExecutor,
+                                @Value("${quizlive.answer-log.tail-interval-ms:200}") long intervalMillis,
+                                @Value("${quizlive.answer-log.batch-size:500}") int batchSize) {
+        this.answerEventLog = answerEventLog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.answerLogExecutor = answerLogExecutor;
+        this.intervalMillis = intervalMillis;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!answerEventLog.isEnabled()) {
+            return;
+        }
+        recoveryEndSequence = answerEventLog.getCommittedSequence();
+        answerLogExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                drain();
+            } catch (Exception e) {
+                log.error("[ANSWER-LOG] Error cargando respuestas en base de datos", e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("[ANSWER-LOG] Tailer iniciado (cada {}ms, lotes de {})", intervalMillis, batchSize);
+    }
+
+    /**
+     * Cargar en base de datos todo lo escrito hasta ahora; devuelve el número de respuestas cargadas
+     * Se invoca también de forma síncrona al finalizar un juego para que el podio vea todas las respuestas
+     */
+    public synchronized int drain() {
+        if (!answerEventLog.isEnabled()) {
+            return 0;
+        }
+        long from = answerEventLog.getLoadedSequence();
+        long to = answerEventLog.getCommittedSequence();
+        int loaded = 0;
+
+        while (from < to) {
+            long batchEnd = Math.min(to, from + batchSize);
+            List<AnswerEvent> batch = new ArrayList<>((int) (batchEnd - from));
+            answerEventLog.read(from, batchEnd, batch::add);
+
+            if (!batch.isEmpty()) {
+                boolean recovering = from < recoveryEndSequence;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> loadBatch(batch, recovering));
+                } catch (DataIntegrityViolationException e) {
+                    log.warn("[ANSWER-LOG] Lote [{}, {}) rechazado ({}), cargando respuesta a respuesta",
+                            from, batchEnd, e.getMostSpecificCause().getMessage());
+                    loadOneByOne(batch, recovering);
+                }
+            }
+            answerEventLog.markLoaded(batchEnd);
+            loaded += batch.size();
+            from = batchEnd;
+        }
+
+        if (loaded > 0) {
+            answerEventLog.force();
+            log.debug("[ANSWER-LOG] {} respuestas cargadas (hasta secuencia {})", loaded, to);
+        }
+        return loaded;
+    }
+
+    private void loadBatch(List<AnswerEvent> events, boolean recovering) {
+        List<AnswerEvent> batch = recovering ? withoutLoadedAnswers(events) : events;
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ANSWER, batch, batch.size(), (ps, event) -> {
+            ps.setLong(1, event.playerId());
+            ps.setLong(2, event.roomQuestionId());
+            ps.setInt(3, event.selectedOption());
+            ps.setLong(4, event.responseMillis());
+            ps.setBoolean(5, event.correct());
+            ps.setInt(6, event.points());
+            ps.setTimestamp(7, new Timestamp(event.submittedAtMillis()));
+        });
+
+        // Un único UPDATE por jugador y lote
+        Map<Long, Integer> scoreDeltas = new HashMap<>();
+        for (AnswerEvent event : batch) {
+            if (event.points() != 0) {
+                scoreDeltas.merge(event.playerId(), event.points(), Integer::sum);
+            }
+        }
+        if (!scoreDeltas.isEmpty()) {
+            List<Map.Entry<Long, Integer>> deltas = new ArrayList<>(scoreDeltas.entrySet());
+            jdbcTemplate.batchUpdate(ADD_PLAYER_SCORE, deltas, deltas.size(), (ps, delta) -> {
+                ps.setInt(1, delta.getValue());
+                ps.setLong(2, delta.getKey());
+            });
+        }
+    }
+
+    private void loadOneByOne(List<AnswerEvent> batch, boolean recovering) {
+        for (AnswerEvent event : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> loadBatch(List.of(event), recovering));
+            } catch (DataIntegrityViolationException e) {
+                String reason = e.getMostSpecificCause().getMessage();
+                answerEventLog.deadLetter(event, reason);
+                log.error("[ANSWER-LOG] Respuesta del jugador {} a la pregunta {} apartada en dead-letter: {}",
+                        event.playerId(), event.roomQuestionId(), reason);
+            }
+        }
+    }
+
+    /**
+     * Descartar las respuestas que ya están en la tabla (uq_answers_player_room_question)
+     * Pasa al reanudar tras una caída entre el commit de un lote y el avance del checkpoint:
+     * sin este filtro la restricción única rechazaría el lote entero en cada intento, y los puntos se sumarían dos veces.
+     * Solo se aplica a los lotes entre el checkpoint y la última secuencia escrita antes de arrancar; lo escrito
+     * después no puede estar cargado, así que no se vuelve a leer la tabla en cada ciclo.
+     */
+    private List<AnswerEvent> withoutLoadedAnswers(List<AnswerEvent> batch) {
+        List<Long> roomQuestionIds = batch.stream().map(AnswerEvent::roomQuestionId).distinct().toList();
+        String placeholders = String.join(",", Collections.nCopies(roomQuestionIds.size(), "?"));
+        Set<String> loaded = new HashSet<>();
+        jdbcTemplate.query(String.format(SELECT_LOADED_ANSWERS, placeholders),
+                rs -> {
+                    loaded.add(rs.getLong(1) + ":" + rs.getLong(2));
+                },
+                roomQuestionIds.toArray());
+
+        List<AnswerEvent> pending = new ArrayList<>(batch.size());
+        for (AnswerEvent event : batch) {
+            if (loaded.add(event.playerId() + ":" + event.roomQuestionId())) {
+                pending.add(event);
+            }
+        }
+        if (pending.size() < batch.size()) {
+            log.warn("[ANSWER-LOG] {} respuestas ya cargadas omitidas al reanudar", batch.size() - pending.size());
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,32 @@
+package com.quizlive.service;
+
+/**
+ * Respuesta rechazada por el control de admisión antes de procesarla
+ * QUEUE_FULL y SHUTTING_DOWN se pueden reintentar pasados retryAfterSeconds; DEADLINE no
+ * (la pregunta se cerraría antes de que llegase su turno).
+ */
+public class AnswerRejectedException extends RuntimeException {
+
+    public enum Reason {
+        QUEUE_FULL,
+        SHUTTING_DOWN,
+        DEADLINE
+    }
+
+    private final Reason reason;
+    private final long retryAfterSeconds;
+
+    public AnswerRejectedException(Reason reason, long retryAfterSeconds, String message) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,114 @@
+package com.quizlive.service;
+
+import com.quizlive.dto.AnswerResultDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resultado de cada respuesta por (jugador, pregunta) durante unos minutos, para los reintentos
+ *
+ * El cliente manda una Idempotency-Key por envío y la repite si reintenta. La primera petición reserva la
+ * entrada con su resultado pendiente; los reintentos con la misma clave (o sin clave) reciben ese mismo
+ * resultado sin volver a procesar la respuesta. Otra clave es un segundo intento real: 409 como antes.
+ * Si el procesamiento falla la entrada se descarta y se puede volver a intentar.
+ *
+ * Como el TTL es fijo, el orden de reserva es también el de caducidad: cada reserva retira por la cabeza de
+ * la cola las entradas caducadas y, por encima de max-entries, las más antiguas aunque sigan vigentes.
+ */
+@Component
+@Slf4j
+public class AnswerResultCache {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<Key, Entry> results = new ConcurrentHashMap<>();
+    // Reservas en orden de caducidad; puede tener entradas ya liberadas, que se descartan al llegar a la cabeza
+    private final ConcurrentLinkedQueue<Entry> expiryOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private record Key(long playerId, long roomQuestionId) {
+    }
+
+    private record Entry(Key key, String idempotencyKey, CompletableFuture<AnswerResultDTO> result, long expiresAt) {
+    }
+
+    public AnswerResultCache(@Value("${quizlive.answer-cache.ttl-seconds:120}") long ttlSeconds,
+                             @Value("${quizlive.answer-cache.max-entries:100000}") int maxEntries) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Reservar la respuesta de un jugador a una pregunta con el resultado pendiente que la procesará
+     * Retorna null si la reserva es nuestra (hay que procesarla y completar pending) o el resultado
+     * ya registrado si es un reintento. Lanza IllegalStateException si ya respondió con otra clave.
+     */
+    public CompletableFuture<AnswerResultDTO> reserve(long playerId, long roomQuestionId, String idempotencyKey,
+                                                      CompletableFuture<AnswerResultDTO> pending) {
+        Key key = new Key(playerId, roomQuestionId);
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(key, idempotencyKey, pending, now + ttlMillis);
+        while (true) {
+            Entry existing = results.putIfAbsent(key, entry);
+            if (existing == null) {
+                expiryOrder.add(entry);
+                queued.incrementAndGet();
+                evict(now);
+                return null;
+            }
+            if (existing.expiresAt() <= now) {
+                results.remove(key, existing);
+                continue;
+            }
+            if (idempotencyKey == null || idempotencyKey.equals(existing.idempotencyKey())) {
+                log.debug("Replaying answer result for player {} and question {}", playerId, roomQuestionId);
+                return existing.result();
+            }
+            throw new IllegalStateException("You have already answered this question");
+        }
+    }
+
+    /**
+     * Retirar por la cabeza las reservas caducadas y las que sobran por encima de maxEntries
+     * Un solo hilo a la vez: los demás siguen sin esperar y la cola puede pasarse del límite un instante.
+     */
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Entry oldest;
+            while ((oldest = expiryOrder.peek()) != null
+                    && (oldest.expiresAt() <= now || queued.get() > maxEntries)) {
+                expiryOrder.poll();
+                queued.decrementAndGet();
+                if (results.remove(oldest.key(), oldest) && oldest.expiresAt() > now) {
+                    log.debug("Answer result cache full ({} entries), evicted an unexpired result", maxEntries);
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Descartar una reserva cuyo procesamiento falló
+     */
+    public void release(long playerId, long roomQuestionId, CompletableFuture<AnswerResultDTO> pending) {
+        results.computeIfPresent(new Key(playerId, roomQuestionId),
+                (key, entry) -> entry.result() == pending ? null : entry);
+    }
+
+    public int size() {
+        return results.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.quizlive.service;
+
+import com.quizlive.model.User;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Principal de los anfitriones: el nombre de usuario de Spring Security es el email y además lleva el id
+ *
+ * Se construye al iniciar sesión, así los controladores no tienen que buscar el usuario en cada petición.
+ * Los datos de perfil (nombre visible, color...) no van aquí: se leen de UserService.getProfile.
+ */
+public class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+
+    private final Long id;
+
+    private AuthenticatedUser(User user) {
+        super(user.getEmail(), user.getPassword(), user.isEnabled(), true, true, true,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole())));
+        this.id = user.getId();
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Email con el que se inició sesión (clave de la caché de perfiles)
+     */
+    public String getEmail() {
+        return getUsername();
+    }
+}
@@ -1,8 +1,11 @@
 package com.quizlive.service;
 
+import com.quizlive.dto.BlockSummaryDTO;
 import com.quizlive.model.Block;
 import com.quizlive.model.User;
 import com.quizlive.repository.BlockRepository;
+import com.quizlive.repository.QuestionRepository;
+import com.quizlive.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -19,6 +22,13 @@ import java.util.List;
 public class BlockService {
 
     private final BlockRepository blockRepository;
+    private final QuestionRepository questionRepository;
+    private final RoomRepository roomRepository;
+    private final QuestionSearchIndex questionSearchIndex;
+    private final ProfileStatsService profileStatsService;
+
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final String COPY_SUFFIX = " (Copia)";
 
     /**
  * Crear un nuevo bloque
@@ -31,6 +41,7 @@ public class BlockService {
         block.setOwner(owner);
 
         Block saved = blockRepository.save(block);
+        profileStatsService.evict(owner.getId());
         log.info("Created block '{}' for user {}", name, owner.getUsername());
         return saved;
     }
@@ -42,18 +53,37 @@ public class BlockService {
         return blockRepository.findByOwnerId(userId);
     }
 
+    /**
+ * Obtener los bloques de un usuario con su número de preguntas (listados)
+ */
+    public List<BlockSummaryDTO> getBlockSummariesByUser(Long userId) {
+        return blockRepository.findSummariesByOwnerId(userId);
+    }
+
     /**
  * Obtener bloque por ID con validación de propiedad
  */
     public Block getBlockById(Long blockId, Long userId) {
         Block block = blockRepository.findById(blockId)
                 .orElseThrow(() -> new IllegalArgumentException("Block not found"));
-        
+        checkOwner(block, userId);
+        return block;
+    }
+
+    /**
+ * Obtener bloque con sus preguntas ya cargadas (vista de detalle)
+ */
+    public Block getBlockWithQuestions(Long blockId, Long userId) {
+        Block block = blockRepository.findWithQuestionsById(blockId)
+                .orElseThrow(() -> new IllegalArgumentException("Block not found"));
+        checkOwner(block, userId);
+        return block;
+    }
+
+    private static void checkOwner(Block block, Long userId) {
         if (!block.getOwner().getId().equals(userId)) {
             throw new SecurityException("You don't have permission to access this block");
         }
-        
-        return block;
     }
 
     /**
@@ -69,6 +99,31 @@ public class BlockService {
         return blockRepository.save(block);
     }
 
+    /**
+ * Clonar un bloque con todas sus preguntas (INSERT ... SELECT en una sola sentencia)
+ */
+    @Transactional
+    public Block cloneBlock(Long blockId, Long userId) {
+        Block source = getBlockById(blockId, userId);
+
+        String name = source.getName();
+        if (name.length() + COPY_SUFFIX.length() > MAX_NAME_LENGTH) {
+            name = name.substring(0, MAX_NAME_LENGTH - COPY_SUFFIX.length());
+        }
+
+        Block copy = new Block();
+        copy.setName(name + COPY_SUFFIX);
+        copy.setDescription(source.getDescription());
+        copy.setOwner(source.getOwner());
+        Block saved = blockRepository.saveAndFlush(copy);
+
+        int copied = questionRepository.copyQuestionsToBlock(source.getId(), saved.getId());
+        questionSearchIndex.invalidate(userId);
+        profileStatsService.evict(userId);
+        log.info("Cloned block {} -> {} ({} questions)", blockId, saved.getId(), copied);
+        return saved;
+    }
+
     /**
  * Eliminar bloque (con validación de uso en salas)
  */
@@ -76,11 +131,13 @@ public class BlockService {
     public void deleteBlock(Long blockId, Long userId) {
         Block block = getBlockById(blockId, userId);
         
-        if (!block.canBeDeleted()) {
+        if (roomRepository.existsByBlockId(blockId)) {
             throw new IllegalStateException("Cannot delete block: it's being used by one or more rooms");
         }
 
         blockRepository.delete(block);
+        questionSearchIndex.removeBlock(userId, blockId);
+        profileStatsService.evict(userId);
         log.info("Deleted block {}", blockId);
     }
 
@@ -3,14 +3,11 @@ package com.quizlive.service;
 import com.quizlive.model.User;
 import com.quizlive.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-
 /**
  * Implementación de UserDetailsService para autenticación de Spring Security
  */
@@ -25,11 +22,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail()) // Spring Security trata el primer campo como 'nombre de usuario'
-                .password(user.getPassword())
-                .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole())))
-                .disabled(!user.isEnabled())
-                .build();
+        // El email es el 'nombre de usuario' de Spring Security; el id queda resuelto en el principal
+        return AuthenticatedUser.from(user);
     }
 }
\ No newline at end of file
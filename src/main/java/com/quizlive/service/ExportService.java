@@ -0,0 +1,246 @@
+package com.quizlive.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.quizlive.dto.AnswerExportRow;
+import com.quizlive.dto.QuestionDTO;
+import com.quizlive.dto.RankingExportRow;
+import com.quizlive.model.Block;
+import com.quizlive.model.Room;
+import com.quizlive.repository.AnswerRepository;
+import com.quizlive.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Exportación en streaming (CSV o NDJSON) de bloques de preguntas y de resultados de salas finalizadas
+ *
+ * Las filas se leen con un cursor de solo avance (Stream de proyecciones) y se escriben según llegan:
+ * la memoria no depende del número de filas. Los métodos write* se invocan desde el hilo de
+ * StreamingResponseBody y abren su propia transacción de solo lectura.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    private static final String QUESTIONS_CSV_HEADER = "text,option1,option2,option3,option4,correctOption";
+    private static final String ANSWERS_CSV_HEADER =
+            "answerId,questionOrder,questionId,questionText,playerId,playerName,selectedOption,correct,responseTimeMillis,points,submittedAt";
+    private static final String RANKING_CSV_HEADER =
+            "rank,playerId,playerName,score,answered,correct,avgResponseTimeMillis";
+
+    private final BlockService blockService;
+    private final RoomService roomService;
+    private final QuestionRepository questionRepository;
+    private final AnswerRepository answerRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static ExportFormat resolve(String format) {
+            if (format == null || format.isBlank()) {
+                return CSV;
+            }
+            return switch (format.trim().toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "ndjson", "json" -> NDJSON;
+                default -> throw new IllegalArgumentException("Unsupported export format: " + format);
+            };
+        }
+    }
+
+    /**
+     * Validar que el bloque pertenece al usuario antes de empezar a escribir la respuesta
+     */
+    public Block getExportableBlock(Long blockId, Long userId) {
+        return blockService.getBlockById(blockId, userId);
+    }
+
+    /**
+     * Validar que la sala es del anfitrión y está finalizada (los resultados ya no cambian)
+     */
+    public Room getExportableRoom(Long roomId, Long hostId) {
+        Room room = roomService.getRoomById(roomId);
+        if (!room.getHost().getId().equals(hostId)) {
+            throw new SecurityException("Only the host can export room results");
+        }
+        if (!room.isFinished()) {
+            throw new IllegalStateException("Room results can only be exported once the game has finished");
+        }
+        return room;
+    }
+
+    /**
+     * Preguntas de un bloque; el CSV usa las mismas columnas que la importación
+     */
+    @Transactional(readOnly = true)
+    public void writeBlockQuestions(Long blockId, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<QuestionDTO> rows = questionRepository.streamExportRowsByBlockId(blockId)) {
+            long count = format == ExportFormat.CSV
+                    ? writeCsv(out, QUESTIONS_CSV_HEADER, rows.iterator(), (writer, row) -> {
+                        writeCsvRow(writer, row.getText(), row.getOption1(), row.getOption2(), row.getOption3(),
+                                row.getOption4(), row.getCorrectOption());
+                    })
+                    : writeNdjson(out, rows.iterator());
+            log.info("Exported {} questions of block {} as {}", count, blockId, format);
+        }
+    }
+
+    /**
+     * Todas las respuestas de una sala, en orden de pregunta
+     */
+    @Transactional(readOnly = true)
+    public void writeRoomAnswers(Long roomId, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<AnswerExportRow> rows = answerRepository.streamExportRowsByRoomId(roomId)) {
+            long count = format == ExportFormat.CSV
+                    ? writeCsv(out, ANSWERS_CSV_HEADER, rows.iterator(), (writer, row) -> {
+                        writeCsvRow(writer, row.answerId(), row.questionOrder(), row.questionId(), row.questionText(),
+                                row.playerId(), row.playerName(), row.selectedOption(), row.correct(),
+                                row.responseTimeMillis(), row.points(), row.submittedAt());
+                    })
+                    : writeNdjson(out, rows.iterator());
+            log.info("Exported {} answers of room {} as {}", count, roomId, format);
+        }
+    }
+
+    /**
+     * Clasificación final; los empates en puntuación comparten posición
+     */
+    @Transactional(readOnly = true)
+    public void writeRoomRanking(Long roomId, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<RankingExportRow> rows = answerRepository.streamRankingRowsByRoomId(roomId)) {
+            Iterator<RankedRow> ranked = rank(rows.iterator());
+            long count = format == ExportFormat.CSV
+                    ? writeCsv(out, RANKING_CSV_HEADER, ranked, (writer, row) -> {
+                        writeCsvRow(writer, row.rank(), row.playerId(), row.playerName(), row.score(),
+                                row.answered(), row.correct(), row.avgResponseTimeMillis());
+                    })
+                    : writeNdjson(out, ranked);
+            log.info("Exported ranking of room {} ({} players) as {}", roomId, count, format);
+        }
+    }
+
+    record RankedRow(int rank, Long playerId, String playerName, Integer score, long answered, long correct,
+                     Long avgResponseTimeMillis) {
+    }
+
+    private static Iterator<RankedRow> rank(Iterator<RankingExportRow> rows) {
+        return new Iterator<>() {
+            private int position;
+            private int rank;
+            private Integer previousScore;
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public RankedRow next() {
+                RankingExportRow row = rows.next();
+                position++;
+                if (!Objects.equals(row.score(), previousScore)) {
+                    rank = position;
+                    previousScore = row.score();
+                }
+                // Jugadores sin respuestas: SUM y AVG llegan como null
+                return new RankedRow(rank, row.playerId(), row.playerName(), row.score(), row.answered(),
+                        row.correct() != null ? row.correct() : 0L,
+                        row.avgResponseTimeMillis() != null ? Math.round(row.avgResponseTimeMillis()) : null);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface CsvRowWriter<T> {
+        void write(Writer writer, T row) throws IOException;
+    }
+
+    private static <T> long writeCsv(OutputStream out, String header, Iterator<T> rows, CsvRowWriter<T> rowWriter)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(header);
+        writer.write("\r\n");
+        long count = 0;
+        while (rows.hasNext()) {
+            rowWriter.write(writer, rows.next());
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(OutputStream out, Iterator<?> rows) throws IOException {
+        // Sin flush por fila: el generador vuelca su buffer cuando se llena
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        long count = 0;
+        while (rows.hasNext()) {
+            writer.writeValue(generator, rows.next());
+            count++;
+        }
+        if (count > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvValue(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,5 +1,11 @@
 package com.quizlive.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quizlive.dto.AnswerEvent;
+import com.quizlive.dto.AnswerResultDTO;
+import com.quizlive.dto.QuestionPayloadDTO;
+import com.quizlive.dto.QuestionStatusDTO;
 import com.quizlive.model.*;
 import com.quizlive.repository.*;
 import lombok.RequiredArgsConstructor;
@@ -8,11 +14,15 @@ import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 @Service
 @RequiredArgsConstructor
@@ -24,36 +34,93 @@ public class GameEngineService {
     private final PlayerRepository playerRepository;
     private final AnswerRepository answerRepository;
     private final RoomService roomService;
+    private final AnswerEventLog answerEventLog;
+    private final AnswerEventLogTailer answerEventLogTailer;
+    private final ObjectMapper objectMapper;
+    private final RoomUpdateNotifier roomUpdateNotifier;
+    private final AnswerResultCache answerResultCache;
+    private final AnswerAdmissionControl answerAdmissionControl;
+    private final TransactionTemplate transactionTemplate;
 
     @Qualifier("timerExecutor")
     private final ScheduledExecutorService timerExecutor;
 
-    @Qualifier("answerProcessingExecutor")
-    private final ExecutorService answerProcessingExecutor;
-
     private final ConcurrentHashMap<String, RoomState> activeRooms = new ConcurrentHashMap<>();
+    // Mismas salas indexadas por id: los jugadores consultan la API con el id de la sala
+    private final ConcurrentHashMap<Long, RoomState> activeRoomsById = new ConcurrentHashMap<>();
+
+    /**
+     * Estado de la pregunta en curso ya serializado, con su versión (crece en cada transición)
+     * La versión 0 es una sala que aún no ha empezado y FINISHED_VERSION una sala terminada.
+     */
+    public record StatusSnapshot(long version, byte[] payload) {
+        public static final long FINISHED_VERSION = Long.MAX_VALUE;
+        // Arranque de este proceso: el contador de versiones vuelve a 0 al reiniciar
+        private static final String BOOT_EPOCH = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+        /**
+         * ETag del estado: la versión sola se repetiría tras un reinicio con otro estado detrás
+         */
+        public String etag() {
+            return BOOT_EPOCH + "-" + version;
+        }
+    }
+
+    /**
+     * Resumen en memoria de una sala activa (para el monitor, sin consultar la base de datos)
+     * currentQuestionId y questionOrder son null cuando ya no quedan preguntas.
+     */
+    public record ActiveRoomSnapshot(String pin, Long roomId, int playerCount, Long currentQuestionId,
+                                     Integer questionOrder, boolean questionOpen) {
+    }
 
     private class RoomState {
         private final String pin;
         private final Long roomId;
         private final List<RoomQuestion> questions;
+        // Opción correcta de cada pregunta, en el mismo orden que questions
+        private final int[] correctOptions;
         private final AtomicInteger currentQuestionIndex;
+        // Índice de la pregunta que acepta respuestas, o -1: lo escriben startNextQuestion y closeQuestion
+        private volatile int openQuestionIndex = -1;
         private final int timePerQuestion;
         
-        private final ConcurrentHashMap<Long, Integer> playerScores;
-        private final ConcurrentHashMap<Long, Set<Long>> playerAnsweredQuestions;
+        // Jugadores indexados de forma densa al iniciar el juego: índice = posición en playerIds (ordenado)
+        private final long[] playerIds;
+        // Puntuación acumulada en la partida: es la que se devuelve al jugador (el tailer del registro va por detrás)
+        private final AtomicIntegerArray playerScores;
+        // Un bitset por pregunta (bit = índice de jugador) y contador de respuestas por pregunta
+        private final AtomicLongArray[] answeredBits;
+        private final AtomicIntegerArray answerCounts;
+        // Pregunta sin la respuesta correcta, construida la primera vez que un jugador la pide
+        private final AtomicReferenceArray<QuestionPayloadDTO> payloads;
+        // Estado de la pregunta en curso ya serializado (JSON): se sustituye en cada transición
+        private volatile StatusSnapshot status = new StatusSnapshot(0, null);
         
         private ScheduledFuture<?> currentTimer;
         private final Object questionLock = new Object();
+        // Última transición o respuesta: el reaper finaliza las salas sin actividad
+        private volatile long lastActivityMillis = System.currentTimeMillis();
         
-        public RoomState(String pin, Long roomId, List<RoomQuestion> questions, int timePerQuestion) {
+        public RoomState(String pin, Long roomId, List<RoomQuestion> questions, int timePerQuestion, long[] playerIds) {
             this.pin = pin;
             this.roomId = roomId;
             this.questions = questions;
+            this.correctOptions = questions.stream()
+                    .mapToInt(roomQuestion -> roomQuestion.getQuestion().getCorrectOption())
+                    .toArray();
             this.currentQuestionIndex = new AtomicInteger(0);
             this.timePerQuestion = timePerQuestion;
-            this.playerScores = new ConcurrentHashMap<>();
-            this.playerAnsweredQuestions = new ConcurrentHashMap<>();
+            this.playerIds = playerIds.clone();
+            Arrays.sort(this.playerIds);
+            this.playerScores = new AtomicIntegerArray(playerIds.length);
+            this.answeredBits = new AtomicLongArray[questions.size()];
+            int words = (playerIds.length + 63) >>> 6;
+            for (int i = 0; i < answeredBits.length; i++) {
+                answeredBits[i] = new AtomicLongArray(words);
+            }
+            this.answerCounts = new AtomicIntegerArray(questions.size());
+            this.payloads = new AtomicReferenceArray<>(questions.size());
         }
 
         public RoomQuestion getCurrentQuestion() {
@@ -72,24 +139,62 @@ public class GameEngineService {
             currentQuestionIndex.incrementAndGet();
         }
 
-        // Método ATÓMICO usando operaciones atómicas de ConcurrentHashMap
+        public int getPlayerCount() {
+            return playerIds.length;
+        }
+
+        // Cierre de la pregunta (epoch millis) para la admisión; NO_DEADLINE si aún no se ha abierto
+        public long getAnswerDeadlineMillis(Long roomQuestionId) {
+            int questionIndex = indexOfQuestion(roomQuestionId);
+            if (questionIndex < 0) {
+                return AnswerAdmissionControl.NO_DEADLINE;
+            }
+            LocalDateTime startTime = questions.get(questionIndex).getStartTime();
+            return startTime == null
+                    ? AnswerAdmissionControl.NO_DEADLINE
+                    : toEpochMillis(startTime) + timePerQuestion * 1000L;
+        }
+
+        public boolean hasPlayer(Long playerId) {
+            return Arrays.binarySearch(playerIds, playerId) >= 0;
+        }
+
+        public boolean isAcceptingAnswers(int questionIndex) {
+            return questionIndex == openQuestionIndex;
+        }
+
+        public int getPlayerScore(Long playerId) {
+            int playerIndex = Arrays.binarySearch(playerIds, playerId);
+            return playerIndex < 0 ? 0 : playerScores.get(playerIndex);
+        }
+
+        public int getAnswersCount(Long roomQuestionId) {
+            int questionIndex = indexOfQuestion(roomQuestionId);
+            return questionIndex < 0 ? 0 : answerCounts.get(questionIndex);
+        }
+
+        // Método ATÓMICO: un único getAndAccumulate sobre el bit del jugador en la pregunta
         // Retorna true si se registró exitosamente, false si ya había respondido
         public boolean tryRecordPlayerAnswer(Long playerId, Long roomQuestionId, int points) {
             log.debug("[tryRecordPlayerAnswer] Player {} attempting to answer question {}", playerId, roomQuestionId);
             
-            Set<Long> answeredQuestions = playerAnsweredQuestions.computeIfAbsent(playerId, k -> ConcurrentHashMap.newKeySet());
-            
-            log.debug("[tryRecordPlayerAnswer] Player {} currently has answered: {}", playerId, answeredQuestions);
+            int playerIndex = Arrays.binarySearch(playerIds, playerId);
+            int questionIndex = indexOfQuestion(roomQuestionId);
+            if (playerIndex < 0 || questionIndex < 0) {
+                throw new IllegalStateException("Player or question is not part of this game");
+            }
             
-            // add() en ConcurrentHashMap.newKeySet() es atómico
-            // Retorna true si se agregó, false si ya existía
-            boolean wasAdded = answeredQuestions.add(roomQuestionId);
+            long mask = 1L << (playerIndex & 63);
+            long previous = answeredBits[questionIndex].getAndAccumulate(playerIndex >>> 6, mask, (word, bit) -> word | bit);
+            boolean wasAdded = (previous & mask) == 0;
             
             log.debug("[tryRecordPlayerAnswer] Player {} add result: {} (question {})", playerId, wasAdded, roomQuestionId);
             
             if (wasAdded) {
                 // Solo actualizar puntos si realmente agregamos la respuesta
-                playerScores.merge(playerId, points, Integer::sum);
+                touch();
+                answerCounts.incrementAndGet(questionIndex);
+                playerScores.addAndGet(playerIndex, points);
                 log.info("[tryRecordPlayerAnswer] Player {} successfully recorded answer to question {}, earned {} points", 
                         playerId, roomQuestionId, points);
             } else {
@@ -99,6 +204,67 @@ public class GameEngineService {
             return wasAdded;
         }
 
+        // Deshacer tryRecordPlayerAnswer cuando la respuesta no llegó a guardarse
+        public void undoPlayerAnswer(Long playerId, Long roomQuestionId, int points) {
+            int playerIndex = Arrays.binarySearch(playerIds, playerId);
+            int questionIndex = indexOfQuestion(roomQuestionId);
+            if (playerIndex < 0 || questionIndex < 0) {
+                return;
+            }
+            long mask = 1L << (playerIndex & 63);
+            long previous = answeredBits[questionIndex].getAndAccumulate(playerIndex >>> 6, mask, (word, bit) -> word & ~bit);
+            if ((previous & mask) != 0) {
+                answerCounts.decrementAndGet(questionIndex);
+                playerScores.addAndGet(playerIndex, -points);
+                log.warn("[undoPlayerAnswer] Answer of player {} to question {} was not stored, undone in memory",
+                        playerId, roomQuestionId);
+            }
+        }
+
+        private int indexOfQuestion(Long roomQuestionId) {
+            // Lo habitual es responder a la pregunta actual: se comprueba primero
+            int current = currentQuestionIndex.get();
+            if (current < questions.size() && questions.get(current).getId().equals(roomQuestionId)) {
+                return current;
+            }
+            for (int i = 0; i < questions.size(); i++) {
+                if (questions.get(i).getId().equals(roomQuestionId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Solo se llama con questionLock tomado (o antes de publicar la sala): no hay dos transiciones a la vez
+        public void publishStatus(QuestionStatusDTO questionStatus) {
+            status = new StatusSnapshot(status.version() + 1, serializeStatus(questionStatus));
+            roomUpdateNotifier.publish(roomId);
+        }
+
+        public ActiveRoomSnapshot snapshot() {
+            RoomQuestion current = getCurrentQuestion();
+            return current == null
+                    ? new ActiveRoomSnapshot(pin, roomId, getPlayerCount(), null, null, false)
+                    : new ActiveRoomSnapshot(pin, roomId, getPlayerCount(), current.getId(), current.getOrderNum(),
+                            Boolean.TRUE.equals(current.getIsOpen()));
+        }
+
+        public void touch() {
+            lastActivityMillis = System.currentTimeMillis();
+        }
+
+        // Estimación aproximada del heap retenido por el estado de la sala (sin contar las entidades compartidas)
+        public long estimateRetainedBytes() {
+            int words = (playerIds.length + 63) >>> 6;
+            return 128L
+                    + 16L + 8L * playerIds.length
+                    + 16L + 4L * playerIds.length
+                    + (long) questions.size() * (16L + 16L + 8L * words + 4L)
+                    + 16L + 4L * questions.size()
+                    + 16L + 4L * questions.size()
+                    + 16L + 160L;
+        }
+
         public void cancelTimer() {
             if (currentTimer != null && !currentTimer.isDone()) {
                 currentTimer.cancel(false);
@@ -117,13 +283,20 @@ public class GameEngineService {
             throw new IllegalStateException("Room is not in WAITING state");
         }
 
-        List<RoomQuestion> questions = roomQuestionRepository.findByRoomIdOrderByOrderNumAsc(room.getId());
+        // Con la pregunta cargada: RoomState guarda la opción correcta de cada una
+        List<RoomQuestion> questions = roomQuestionRepository.findByRoomIdWithQuestion(room.getId());
         if (questions.isEmpty()) {
             throw new IllegalStateException("No questions configured for this room");
         }
 
-        RoomState roomState = new RoomState(pin, room.getId(), questions, room.getTimePerQuestion());
+        long[] playerIds = playerRepository.findIdsByRoomId(room.getId()).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+
+        RoomState roomState = new RoomState(pin, room.getId(), questions, room.getTimePerQuestion(), playerIds);
+        roomState.publishStatus(QuestionStatusDTO.waiting(true));
         activeRooms.put(pin, roomState);
+        activeRoomsById.put(room.getId(), roomState);
 
         room.start();
         roomRepository.save(room);
@@ -165,6 +338,12 @@ public class GameEngineService {
             
             question.open();
             roomQuestionRepository.save(question);
+            // Escritura volatile después de open(): quien la lee ve también la hora de apertura
+            roomState.openQuestionIndex = roomState.currentQuestionIndex.get();
+            roomState.touch();
+            long openedAt = toEpochMillis(question.getStartTime());
+            roomState.publishStatus(QuestionStatusDTO.active(question.getId(), openedAt,
+                    openedAt + roomState.timePerQuestion * 1000L, roomState.timePerQuestion));
 
             long duration = System.currentTimeMillis() - startTime;
             log.info("▶ [QUESTION-OPEN] Pregunta {} abierta (orden: {}/{}) en {}ms", 
@@ -193,15 +372,17 @@ public class GameEngineService {
         }
 
         synchronized (roomState.questionLock) {
+            // Dejar de aceptar respuestas antes de cerrarla en base de datos (un temporizador atrasado no cierra otra)
+            int questionIndex = roomState.indexOfQuestion(roomQuestionId);
+            if (questionIndex >= 0 && roomState.openQuestionIndex == questionIndex) {
+                roomState.openQuestionIndex = -1;
+            }
             RoomQuestion question = roomQuestionRepository.findById(roomQuestionId).orElse(null);
             if (question != null && question.getIsOpen()) {
                 question.close();
                 roomQuestionRepository.save(question);
                 
-                int answersCount = roomState.playerAnsweredQuestions.entrySet().stream()
-                        .filter(entry -> entry.getValue().contains(roomQuestionId))
-                        .mapToInt(e -> 1)
-                        .sum();
+                int answersCount = roomState.getAnswersCount(roomQuestionId);
                 
                 log.info("■ [QUESTION-CLOSE] Pregunta {} cerrada ({} respuestas recibidas)", 
                         roomQuestionId, answersCount);
@@ -209,27 +390,58 @@ public class GameEngineService {
 
             roomState.cancelTimer();
             roomState.moveToNextQuestion();
+            roomState.touch();
+            RoomQuestion next = roomState.getCurrentQuestion();
+            roomState.publishStatus(next != null
+                    ? QuestionStatusDTO.closed(next.getId())
+                    : QuestionStatusDTO.waiting(true));
             
             log.debug("⏭ [QUESTION-NEXT] Avanzando a siguiente pregunta en 2 segundos...");
-            timerExecutor.schedule(() -> startNextQuestion(pin), 2, TimeUnit.SECONDS);
+            // Se guarda como temporizador actual para poder cancelarlo si la sala se desaloja
+            roomState.currentTimer = timerExecutor.schedule(() -> startNextQuestion(pin), 2, TimeUnit.SECONDS);
         }
         clearMDC();
     }
 
-    public CompletableFuture<Answer> submitAnswer(String pin, String playerName, 
-                                                    Long roomQuestionId, Integer selectedOption) {
-        return CompletableFuture.supplyAsync(() -> {
-            return processAnswer(pin, playerName, roomQuestionId, selectedOption);
-        }, answerProcessingExecutor)
+    /**
+     * Procesar la respuesta de un jugador identificado por su token (sala e id, sin buscar por pin ni nombre)
+     * Un reintento con la misma idempotencyKey recibe el resultado original sin volver a procesarla.
+     */
+    public CompletableFuture<AnswerResultDTO> submitAnswer(Long roomId, Long playerId, Long roomQuestionId,
+                                                           Integer selectedOption, String idempotencyKey) {
+        CompletableFuture<AnswerResultDTO> result = new CompletableFuture<>();
+        CompletableFuture<AnswerResultDTO> previous;
+        try {
+            previous = answerResultCache.reserve(playerId, roomQuestionId, idempotencyKey, result);
+        } catch (IllegalStateException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (previous != null) {
+            return previous;
+        }
+
+        RoomState activeState = activeRoomsById.get(roomId);
+        if (activeState == null) {
+            answerResultCache.release(playerId, roomQuestionId, result);
+            return CompletableFuture.failedFuture(new IllegalStateException("Room not active"));
+        }
+        String pin = activeState.pin;
+        CompletableFuture<Answer> processing;
+        try {
+            // Admisión según la cola y el cierre de la pregunta: no se encola lo que llegaría tarde
+            processing = answerAdmissionControl.submit(activeState.getAnswerDeadlineMillis(roomQuestionId),
+                    () -> processAnswer(activeState, playerId, roomQuestionId, selectedOption));
+        } catch (AnswerRejectedException e) {
+            answerResultCache.release(playerId, roomQuestionId, result);
+            return CompletableFuture.failedFuture(e);
+        }
+        processing
                 .thenApply(answer -> {
                     try {
                         RoomState roomState = activeRooms.get(pin);
                         if (roomState != null) {
-                            long totalPlayers = playerRepository.countByRoomId(roomState.roomId);
-                            int answersCount = roomState.playerAnsweredQuestions.entrySet().stream()
-                                    .filter(entry -> entry.getValue().contains(roomQuestionId))
-                                    .mapToInt(e -> 1)
-                                    .sum();
+                            int totalPlayers = roomState.getPlayerCount();
+                            int answersCount = roomState.getAnswersCount(roomQuestionId);
                             
                             log.debug("[Thread: {}] Progress check: {}/{} answers for question {}", 
                                     Thread.currentThread().getName(), answersCount, totalPlayers, roomQuestionId);
@@ -243,48 +455,59 @@ public class GameEngineService {
                     } catch (Exception e) {
                         log.error("Error checking auto-advance condition", e);
                     }
-                    return answer;
+                    return new AnswerResultDTO(answer.getIsCorrect(), answer.getPointsEarned(),
+                            activeState.getPlayerScore(playerId));
+                })
+                .whenComplete((answerResult, error) -> {
+                    if (error == null) {
+                        result.complete(answerResult);
+                    } else {
+                        // Sin resultado que repetir: un reintento vuelve a procesar la respuesta
+                        answerResultCache.release(playerId, roomQuestionId, result);
+                        result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                    }
                 });
+        return result;
     }
     
-    @Transactional
-    private Answer processAnswer(String pin, String playerName, Long roomQuestionId, Integer selectedOption) {
+    /**
+     * Validar y registrar una respuesta con el estado en memoria de la sala (pregunta abierta, jugador, opción
+     * correcta): con el registro de respuestas activo no se consulta la base de datos.
+     */
+    private Answer processAnswer(RoomState roomState, Long playerId, Long roomQuestionId, Integer selectedOption) {
+        String pin = roomState.pin;
         setMDC(pin);
         long startTime = System.currentTimeMillis();
         
-        log.info("[Thread: {}] Processing answer from player '{}' for question {}", 
-                Thread.currentThread().getName(), playerName, roomQuestionId);
+        log.info("[Thread: {}] Processing answer from player {} for question {}", 
+                Thread.currentThread().getName(), playerId, roomQuestionId);
 
         try {
-            RoomState roomState = activeRooms.get(pin);
-            if (roomState == null) {
-                throw new IllegalStateException("Room not active");
-            }
 
-            RoomQuestion roomQuestion = roomQuestionRepository.findByIdWithQuestion(roomQuestionId)
-                    .orElseThrow(() -> new IllegalArgumentException("Question not found"));
+            int questionIndex = roomState.indexOfQuestion(roomQuestionId);
+            if (questionIndex < 0) {
+                throw new IllegalArgumentException("Question not found");
+            }
 
-            if (!roomQuestion.canAcceptAnswers()) {
+            if (!roomState.isAcceptingAnswers(questionIndex)) {
                 log.warn("[Thread: {}] Question {} is closed, rejecting answer", 
                         Thread.currentThread().getName(), roomQuestionId);
                 throw new IllegalStateException("Question is no longer accepting answers");
             }
 
-            Player player = playerRepository.findByRoomPinAndName(pin, playerName)
-                    .orElseThrow(() -> new IllegalArgumentException("Player not found"));
-
-            log.info("[processAnswer] Found player - ID: {}, Name: '{}', Pin: '{}'", 
-                    player.getId(), player.getName(), pin);
+            if (!roomState.hasPlayer(playerId)) {
+                throw new IllegalArgumentException("Player not found");
+            }
 
-            long responseTime = System.currentTimeMillis() - roomQuestion.getStartTime()
-                    .atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
+            // El RoomQuestion de la lista es el que se abrió en startNextQuestion
+            RoomQuestion roomQuestion = roomState.questions.get(questionIndex);
+            long submittedAt = System.currentTimeMillis();
+            long responseTime = submittedAt - toEpochMillis(roomQuestion.getStartTime());
 
-            Question question = roomQuestion.getQuestion();
-            boolean isCorrect = question.isCorrect(selectedOption);
+            boolean isCorrect = selectedOption != null && selectedOption == roomState.correctOptions[questionIndex];
 
             Answer answer = new Answer();
-            answer.setPlayer(player);
-            answer.setRoomQuestion(roomQuestion);
             answer.setSelectedOption(selectedOption);
             answer.setResponseTime(responseTime);
             answer.setIsCorrect(isCorrect);
@@ -292,30 +515,51 @@ public class GameEngineService {
             answer.calculatePoints(false, roomState.timePerQuestion);
             
             log.debug("[processAnswer] About to try recording - Player ID: {}, Question ID: {}, Points: {}", 
-                    player.getId(), roomQuestionId, answer.getPointsEarned());
+                    playerId, roomQuestionId, answer.getPointsEarned());
             
             // Intentar registrar de forma ATÓMICA (verifica + registra en una operación)
             // Si retorna false, significa que ya respondió (race condition evitada)
-            if (!roomState.tryRecordPlayerAnswer(player.getId(), roomQuestionId, answer.getPointsEarned())) {
+            if (!roomState.tryRecordPlayerAnswer(playerId, roomQuestionId, answer.getPointsEarned())) {
                 log.warn("[Thread: {}] Player {} already answered question {} (detected in atomic operation)", 
-                        Thread.currentThread().getName(), playerName, roomQuestionId);
+                        Thread.currentThread().getName(), playerId, roomQuestionId);
                 throw new IllegalStateException("You have already answered this question");
             }
             
             // Solo llegamos aquí si el registro fue exitoso
-            // Ahora guardar en base de datos
-            Answer savedAnswer = answerRepository.save(answer);
-
-            player.addScore(answer.getPointsEarned());
-            playerRepository.save(player);
-            playerRepository.flush();
+            // Si no se puede guardar se deshace en memoria: el jugador puede reintentar y no cuentan los puntos
+            try {
+                if (answerEventLog.isEnabled()) {
+                    // Registro en disco: el tailer inserta la respuesta y suma los puntos en segundo plano
+                    answerEventLog.append(new AnswerEvent(roomState.roomId, roomQuestionId, playerId,
+                            selectedOption, isCorrect, responseTime * 1_000_000L, answer.getPointsEarned(), submittedAt));
+
+                    log.info("[Thread: {}] Answer logged in {}ms - Player: {}, Correct: {}, Points: {}",
+                            Thread.currentThread().getName(), System.currentTimeMillis() - startTime, playerId,
+                            isCorrect, answer.getPointsEarned());
+                    return answer;
+                }
+
+                // Ahora guardar en base de datos: respuesta y puntuación en la misma transacción
+                Answer savedAnswer = transactionTemplate.execute(status -> {
+                    Player player = playerRepository.findById(playerId)
+                            .orElseThrow(() -> new IllegalArgumentException("Player not found"));
+                    answer.setPlayer(player);
+                    answer.setRoomQuestion(roomQuestionRepository.getReferenceById(roomQuestionId));
+                    Answer saved = answerRepository.save(answer);
+                    player.addScore(answer.getPointsEarned());
+                    return saved;
+                });
 
-            long processingTime = System.currentTimeMillis() - startTime;
-            log.info("[Thread: {}] Answer processed in {}ms - Player: {}, Correct: {}, Points: {}", 
-                    Thread.currentThread().getName(), processingTime, playerName, 
-                    isCorrect, answer.getPointsEarned());
+                long processingTime = System.currentTimeMillis() - startTime;
+                log.info("[Thread: {}] Answer processed in {}ms - Player: {}, Correct: {}, Points: {}", 
+                        Thread.currentThread().getName(), processingTime, playerId, 
+                        isCorrect, answer.getPointsEarned());
 
-            return savedAnswer;
+                return savedAnswer;
+            } catch (RuntimeException e) {
+                roomState.undoPlayerAnswer(playerId, roomQuestionId, answer.getPointsEarned());
+                throw e;
+            }
 
         } catch (Exception e) {
             log.error("[Thread: {}] Error processing answer: {}", 
@@ -334,19 +578,120 @@ public class GameEngineService {
         RoomState roomState = activeRooms.get(pin);
         if (roomState != null) {
             roomState.cancelTimer();
-            activeRooms.remove(pin);
+            removeActiveRoom(pin);
             log.info("🏁 [GAME-END] Sala {} eliminada de salas activas ({} salas restantes)", 
                     pin, activeRooms.size());
         }
 
+        // Volcar las respuestas pendientes del registro antes de mostrar el podio
+        // Si falla, el tailer lo reintenta en segundo plano: la partida termina igualmente
+        try {
+            answerEventLogTailer.drain();
+        } catch (Exception e) {
+            log.error("🏁 [GAME-END] Error volcando el registro de respuestas de la sala {}: {}", pin, e.getMessage());
+        }
+
         Room room = roomService.getRoomByPin(pin);
         room.finish();
         roomRepository.save(room);
+        roomUpdateNotifier.publish(room.getId());
 
         log.info("🏁 [GAME-END] Juego finalizado exitosamente en sala {}", pin);
         clearMDC();
     }
 
+    /**
+     * Desalojar las salas activas sin actividad desde hace más de idleMillis
+     * Cancela sus temporizadores, libera su RoomState y las finaliza en base de datos
+     */
+    public List<String> evictIdleRooms(long idleMillis) {
+        long now = System.currentTimeMillis();
+        List<String> evicted = new ArrayList<>();
+        for (Map.Entry<String, RoomState> entry : activeRooms.entrySet()) {
+            String pin = entry.getKey();
+            if (now - entry.getValue().lastActivityMillis <= idleMillis) {
+                continue;
+            }
+            log.warn("♻ [ROOM-EVICT] Sala {} sin actividad desde hace {}s, finalizando",
+                    pin, (now - entry.getValue().lastActivityMillis) / 1000);
+            try {
+                finishGame(pin);
+            } catch (Exception e) {
+                // Aunque falle la base de datos, la memoria y los temporizadores se liberan igualmente
+                RoomState removed = removeActiveRoom(pin);
+                if (removed != null) {
+                    removed.cancelTimer();
+                }
+                log.error("♻ [ROOM-EVICT] Error finalizando sala {}: {}", pin, e.getMessage());
+                clearMDC();
+            }
+            evicted.add(pin);
+        }
+        return evicted;
+    }
+
+    /**
+     * Heap aproximado retenido por todas las salas activas
+     */
+    public long estimateRetainedBytes() {
+        return activeRooms.values().stream()
+                .mapToLong(RoomState::estimateRetainedBytes)
+                .sum();
+    }
+
+    /**
+     * Jugadores en todas las salas activas, contados en memoria (sin consultar la base de datos)
+     */
+    public int getActivePlayerCount() {
+        return activeRooms.values().stream()
+                .mapToInt(RoomState::getPlayerCount)
+                .sum();
+    }
+
+    /**
+     * Estado de la pregunta en curso ya serializado, compartido por todos los jugadores de la sala
+     * Retorna null si la sala no está en juego (aún no ha empezado o ya ha terminado).
+     */
+    public StatusSnapshot getStatusSnapshot(Long roomId) {
+        RoomState roomState = activeRoomsById.get(roomId);
+        return roomState != null ? roomState.status : null;
+    }
+
+    /**
+     * Estado para una sala que no está en memoria: terminada o todavía esperando a empezar
+     */
+    public StatusSnapshot getInactiveStatusSnapshot(boolean finished) {
+        return finished
+                ? new StatusSnapshot(StatusSnapshot.FINISHED_VERSION, serializeStatus(QuestionStatusDTO.finishedGame()))
+                : new StatusSnapshot(0, serializeStatus(QuestionStatusDTO.waiting(false)));
+    }
+
+    /**
+     * Respuestas recibidas a la pregunta en curso, contadas en memoria (0 si la sala no está en juego)
+     */
+    public int getCurrentAnswersCount(Long roomId) {
+        RoomState roomState = activeRoomsById.get(roomId);
+        if (roomState == null) {
+            return 0;
+        }
+        RoomQuestion current = roomState.getCurrentQuestion();
+        return current != null ? roomState.getAnswersCount(current.getId()) : 0;
+    }
+
+    public List<ActiveRoomSnapshot> getActiveRoomSnapshots() {
+        return activeRooms.values().stream()
+                .map(RoomState::snapshot)
+                .toList();
+    }
+
+    /**
+     * Resumen de una sala activa; null si la sala no está en juego
+     */
+    public ActiveRoomSnapshot getActiveRoomSnapshot(String pin) {
+        RoomState roomState = activeRooms.get(pin);
+        return roomState != null ? roomState.snapshot() : null;
+    }
+
     public RoomQuestion getCurrentQuestion(String pin) {
         RoomState roomState = activeRooms.get(pin);
         if (roomState == null) {
@@ -359,9 +704,47 @@ public class GameEngineService {
         return roomQuestionRepository.findByIdWithQuestion(current.getId()).orElse(current);
     }
 
-    public List<Player> getRanking(String pin) {
-        Room room = roomService.getRoomByPin(pin);
-        return playerRepository.findByRoomIdOrderByScoreDesc(room.getId());
+    /**
+     * Pregunta de una sala activa para los jugadores, sin la opción correcta
+     * Solo se sirven la pregunta actual y las anteriores, nunca las que aún no se han abierto.
+     * La primera petición carga la pregunta; el resto reciben el mismo objeto sin tocar la base de datos.
+     */
+    public QuestionPayloadDTO getQuestionPayload(Long roomId, Long roomQuestionId) {
+        RoomState roomState = activeRoomsById.get(roomId);
+        if (roomState == null) {
+            throw new IllegalStateException("Room not active");
+        }
+        int index = roomState.indexOfQuestion(roomQuestionId);
+        if (index < 0) {
+            throw new IllegalArgumentException("Question not found");
+        }
+        // El RoomQuestion de la lista es el mismo objeto que se abre en startNextQuestion
+        LocalDateTime startTime = roomState.questions.get(index).getStartTime();
+        if (index > roomState.currentQuestionIndex.get() || startTime == null) {
+            throw new IllegalStateException("Question is not open yet");
+        }
+        QuestionPayloadDTO payload = roomState.payloads.get(index);
+        if (payload == null) {
+            RoomQuestion roomQuestion = roomQuestionRepository.findByIdWithQuestion(roomQuestionId)
+                    .orElseThrow(() -> new IllegalArgumentException("Question not found"));
+            // Si dos peticiones llegan a la vez, ambas construyen el mismo contenido y se queda el primero
+            roomState.payloads.compareAndSet(index, null, QuestionPayloadDTO.of(roomQuestion,
+                    roomState.questions.size(), roomState.timePerQuestion, toEpochMillis(startTime)));
+            payload = roomState.payloads.get(index);
+        }
+        return payload;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private byte[] serializeStatus(QuestionStatusDTO status) {
+        try {
+            return objectMapper.writeValueAsBytes(status);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize question status", e);
+        }
     }
 
     private void setMDC(String pin) {
@@ -379,6 +762,14 @@ public class GameEngineService {
         MDC.clear();
     }
 
+    private RoomState removeActiveRoom(String pin) {
+        RoomState removed = activeRooms.remove(pin);
+        if (removed != null) {
+            activeRoomsById.remove(removed.roomId, removed);
+        }
+        return removed;
+    }
+
     public boolean isRoomActive(String pin) {
         return activeRooms.containsKey(pin);
     }
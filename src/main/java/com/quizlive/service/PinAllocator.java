@@ -0,0 +1,175 @@
+package com.quizlive.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+
+/**
+ * Asignador de PINs de sala: pool en memoria de candidatos ya barajado y reserva en la tabla room_pins
+ *
+ * El pool evita buscar PINs libres en la base de datos, pero con varios nodos cada uno tiene el suyo y
+ * pueden ofrecer el mismo PIN. Por eso asignar es reservar el candidato insertando su fila en room_pins
+ * (en su propia transacción): si otro nodo ya lo reservó la clave primaria lo rechaza, el PIN se descarta
+ * del pool local y se prueba el siguiente. Liberar borra la fila y devuelve el PIN al pool.
+ */
+@Component
+@Slf4j
+public class PinAllocator {
+
+    private static final int MAX_PIN_LENGTH = 6; // Longitud de la columna rooms.pin
+    private static final int MAX_CLAIM_ATTEMPTS = 50;
+    // Reservas sin sala (nodo caído entre reservar el PIN y crear la sala) que se recuperan al recargar
+    private static final Duration STALE_CLAIM_AGE = Duration.ofMinutes(10);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate claimTransaction;
+    private final int pinLength;
+    private final SecureRandom random = new SecureRandom();
+
+    private int[] pool;
+    private int size;
+
+    public PinAllocator(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${quizlive.pin.length:4}") int pinLength) {
+        if (pinLength < 1 || pinLength > MAX_PIN_LENGTH) {
+            throw new IllegalArgumentException("PIN length must be between 1 and " + MAX_PIN_LENGTH);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        // La reserva se confirma aunque la transacción de createRoom acabe en rollback (release la deshace)
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.pinLength = pinLength;
+    }
+
+    @PostConstruct
+    public synchronized void init() {
+        reload();
+        log.info("PIN pool ready: {} free of {} ({}-digit PINs)", size, pool.length, pinLength);
+    }
+
+    /**
+     * Obtener y reservar un PIN libre
+     */
+    public String allocate() {
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            String pin = format(take());
+            if (claim(pin)) {
+                return pin;
+            }
+            // Otro nodo lo reservó: no vuelve al pool hasta que se libere
+            log.debug("PIN {} already claimed by another node", pin);
+        }
+        throw new IllegalStateException("No free room PINs available");
+    }
+
+    /**
+     * Liberar la reserva de un PIN y devolverlo al pool (sala finalizada cuyo PIN ya se liberó en base de datos,
+     * o sala que no llegó a crearse)
+     */
+    public void release(String pin) {
+        int value = parse(pin);
+        if (value < 0) {
+            return;
+        }
+        claimTransaction.executeWithoutResult(status ->
+                jdbcTemplate.update("DELETE FROM room_pins WHERE pin = ?", pin));
+        giveBack(value);
+    }
+
+    public synchronized int getFreeCount() {
+        return size;
+    }
+
+    private boolean claim(String pin) {
+        try {
+            claimTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.update("INSERT INTO room_pins (pin, claimed_at) VALUES (?, ?)",
+                            pin, Timestamp.valueOf(LocalDateTime.now())));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private synchronized int take() {
+        if (size == 0) {
+            // El pool local se agotó o quedó desfasado respecto a los demás nodos
+            reload();
+        }
+        if (size == 0) {
+            throw new IllegalStateException("No free room PINs available");
+        }
+        return pool[--size];
+    }
+
+    private synchronized void giveBack(int value) {
+        if (size == pool.length) {
+            return;
+        }
+        // Insertar en una posición aleatoria para que el orden de asignación siga siendo impredecible
+        int j = random.nextInt(size + 1);
+        pool[size] = pool[j];
+        pool[j] = value;
+        size++;
+    }
+
+    // Reconstruye el pool con los PINs sin reserva en room_pins
+    private void reload() {
+        jdbcTemplate.update("DELETE FROM room_pins WHERE claimed_at < ? "
+                        + "AND pin NOT IN (SELECT r.pin FROM rooms r WHERE r.pin IS NOT NULL)",
+                Timestamp.valueOf(LocalDateTime.now().minus(STALE_CLAIM_AGE)));
+
+        int space = (int) Math.pow(10, pinLength);
+        BitSet used = new BitSet(space);
+        for (String pin : jdbcTemplate.queryForList("SELECT pin FROM room_pins", String.class)) {
+            int value = parse(pin);
+            if (value >= 0) {
+                used.set(value);
+            }
+        }
+
+        pool = new int[space];
+        size = 0;
+        for (int value = 0; value < space; value++) {
+            if (!used.get(value)) {
+                pool[size++] = value;
+            }
+        }
+        // Fisher–Yates sobre los PINs libres
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = pool[i];
+            pool[i] = pool[j];
+            pool[j] = tmp;
+        }
+    }
+
+    private String format(int value) {
+        return String.format("%0" + pinLength + "d", value);
+    }
+
+    // Devuelve -1 para PINs con otra longitud o formato (no pertenecen a este espacio)
+    private int parse(String pin) {
+        if (pin == null || pin.length() != pinLength) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(pin);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
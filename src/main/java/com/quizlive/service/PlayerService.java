@@ -1,5 +1,6 @@
 package com.quizlive.service;
 
+import com.quizlive.dto.PlayerSummaryDTO;
 import com.quizlive.model.Player;
 import com.quizlive.model.Room;
 import com.quizlive.repository.PlayerRepository;
@@ -9,7 +10,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Servicio de gestión de jugadores
@@ -57,6 +62,20 @@ public class PlayerService {
         return playerRepository.findByRoomId(roomId);
     }
 
+    /**
+ * Jugadores de una sala como proyección (id, nombre, puntuación), en orden de llegada
+ */
+    public List<PlayerSummaryDTO> getPlayerSummariesByRoom(Long roomId) {
+        return playerRepository.findSummariesByRoomId(roomId);
+    }
+
+    /**
+ * Clasificación de una sala como proyección, de mayor a menor puntuación
+ */
+    public List<PlayerSummaryDTO> getRankingSummariesByRoom(Long roomId) {
+        return playerRepository.findRankingSummariesByRoomId(roomId);
+    }
+
     /**
  * Obtener jugadores ordenados por puntuación (ranking)
  */
@@ -90,6 +109,28 @@ public class PlayerService {
         return playerRepository.findByRoomId(room.getId());
     }
 
+    /**
+     * Contar jugadores de una sala sin cargar la colección
+     */
+    public long countPlayersByRoom(Long roomId) {
+        return playerRepository.countByRoomId(roomId);
+    }
+
+    /**
+     * Nombres de los jugadores de varias salas, agrupados por PIN, en una sola consulta
+     * Útil para el monitoring controller
+     */
+    public Map<String, List<String>> getPlayerNamesByRoomPins(Collection<String> pins) {
+        if (pins.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, List<String>> names = new HashMap<>();
+        for (Object[] row : playerRepository.findNamesByRoomPins(pins)) {
+            names.computeIfAbsent((String) row[0], pin -> new ArrayList<>()).add((String) row[1]);
+        }
+        return names;
+    }
+
     /**
      * Actualizar puntuación del jugador (thread-safe si se llama con sincronización adecuada)
      */
@@ -0,0 +1,129 @@
+package com.quizlive.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Tokens de jugador firmados con HMAC-SHA256, sin estado en el servidor
+ *
+ * Se emiten al unirse a una sala y sustituyen a los atributos de la HttpSession: cualquier nodo con el mismo
+ * secreto puede verificarlos. Formato (base64url, 55 caracteres): versión (1 byte), id de sala (8), id de
+ * jugador (8), caducidad en segundos epoch (8) y los 16 primeros bytes del HMAC de todo lo anterior.
+ * Si no se configura quizlive.player-token.secret se genera uno aleatorio al arrancar: los tokens dejan de
+ * valer al reiniciar y no sirven entre nodos.
+ */
+@Service
+@Slf4j
+public class PlayerTokenService {
+
+    public static final String COOKIE_NAME = "QL_PLAYER";
+    public static final String HEADER_NAME = "X-Player-Token";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final int PAYLOAD_LENGTH = 1 + 8 + 8 + 8;
+    private static final int MAC_LENGTH = 16;
+    private static final int TOKEN_LENGTH = PAYLOAD_LENGTH + MAC_LENGTH;
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+    // Mac no es thread-safe y Mac.getInstance es caro: una instancia por hilo
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Jugador autenticado por el token (principal de Spring Security en las rutas de juego)
+     */
+    public record PlayerToken(long roomId, long playerId, long expiresAt) {
+    }
+
+    public PlayerTokenService(@Value("${quizlive.player-token.secret:}") String secret,
+                              @Value("${quizlive.player-token.ttl-minutes:240}") long ttlMinutes) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("quizlive.player-token.secret is not set: using a random key (player tokens will not survive a restart or work across nodes)");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttlSeconds = ttlMinutes * 60;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public String issue(Long roomId, Long playerId) {
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+        byte[] token = new byte[TOKEN_LENGTH];
+        ByteBuffer.wrap(token)
+                .put(VERSION)
+                .putLong(roomId)
+                .putLong(playerId)
+                .putLong(expiresAt);
+        Mac mac = macs.get();
+        mac.update(token, 0, PAYLOAD_LENGTH);
+        System.arraycopy(mac.doFinal(), 0, token, PAYLOAD_LENGTH, MAC_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * Verificar un token; retorna null si está mal formado, la firma no coincide o ha caducado
+     */
+    public PlayerToken verify(String encoded) {
+        if (encoded == null || encoded.length() != (TOKEN_LENGTH * 4 + 2) / 3) {
+            return null;
+        }
+        byte[] token;
+        try {
+            token = Base64.getUrlDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (token.length != TOKEN_LENGTH || token[0] != VERSION) {
+            return null;
+        }
+
+        Mac mac = macs.get();
+        mac.update(token, 0, PAYLOAD_LENGTH);
+        byte[] expected = mac.doFinal();
+        // Comparación en tiempo constante
+        int diff = 0;
+        for (int i = 0; i < MAC_LENGTH; i++) {
+            diff |= expected[i] ^ token[PAYLOAD_LENGTH + i];
+        }
+        if (diff != 0) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(token, 1, PAYLOAD_LENGTH - 1);
+        long roomId = buffer.getLong();
+        long playerId = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        if (expiresAt < System.currentTimeMillis() / 1000) {
+            return null;
+        }
+        return new PlayerToken(roomId, playerId, expiresAt);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC not available", e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.quizlive.service;
+
+import com.quizlive.dto.ProfileStatsDTO;
+import com.quizlive.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estadísticas del perfil (bloques, preguntas, salas, jugadores y respuestas)
+ *
+ * Se calculan con recuentos en la base de datos, sin cargar colecciones, y se guardan unos
+ * segundos por usuario: recargar el perfil no repite la consulta. ttl-seconds=0 desactiva la caché.
+ */
+@Service
+@Slf4j
+public class ProfileStatsService {
+
+    private static final int PRUNE_THRESHOLD = 1000;
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+
+    private final ConcurrentHashMap<Long, CachedStats> cache = new ConcurrentHashMap<>();
+
+    private record CachedStats(ProfileStatsDTO stats, long expiresAt) {
+    }
+
+    public ProfileStatsService(UserRepository userRepository,
+                               @Value("${quizlive.profile.stats-ttl-seconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Obtener las estadísticas de un usuario (de la caché si siguen vigentes)
+     */
+    @Transactional(readOnly = true)
+    public ProfileStatsDTO getStats(Long userId) {
+        long now = System.currentTimeMillis();
+        CachedStats cached = cache.get(userId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.stats();
+        }
+
+        ProfileStatsDTO stats = userRepository.getProfileStats(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        if (ttlMillis > 0) {
+            if (cache.size() >= PRUNE_THRESHOLD) {
+                cache.values().removeIf(entry -> entry.expiresAt() <= now);
+            }
+            cache.put(userId, new CachedStats(stats, now + ttlMillis));
+        }
+        log.debug("Profile stats for user {} computed in {}ms", userId, System.currentTimeMillis() - now);
+        return stats;
+    }
+
+    /**
+     * Descartar las estadísticas en caché de un usuario (tras crear, clonar o borrar bloques y preguntas)
+     * Dentro de una transacción se descartan también tras el commit: un perfil cargado mientras tanto
+     * habría vuelto a guardar los recuentos anteriores.
+     */
+    public void evict(Long userId) {
+        cache.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(userId);
+                }
+            });
+        }
+    }
+}
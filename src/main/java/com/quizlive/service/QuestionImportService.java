@@ -0,0 +1,361 @@
+package com.quizlive.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quizlive.dto.QuestionImportResultDTO;
+import com.quizlive.model.Block;
+import com.quizlive.model.Question;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Importación masiva de preguntas desde CSV o JSON
+ *
+ * - El fichero se lee de forma incremental: nunca se carga entero en memoria
+ * - La propiedad del bloque se valida una sola vez para toda la importación
+ * - Cada fila se valida por separado (campos obligatorios, longitudes, opción correcta y opciones distintas);
+ *   las filas inválidas se informan y el resto se inserta en lotes JDBC
+ * - Un fichero mal formado (no una fila inválida) aborta la importación completa
+ */
+@Service
+@Slf4j
+public class QuestionImportService {
+
+    private static final String INSERT_QUESTION =
+            "INSERT INTO questions (block_id, text, option1, option2, option3, option4, correct_option) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int CSV_COLUMNS = 6; // text, option1, option2, option3, option4, correctOption
+    private static final Set<String> CSV_HEADER_NAMES = Set.of("text", "pregunta", "enunciado");
+    private static final int SEPARATOR_PEEK_CHARS = 4096;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_TEXT_LENGTH = 1000;   // Longitud de la columna questions.text
+    private static final int MAX_OPTION_LENGTH = 500;  // Longitud de las columnas questions.optionN
+
+    public enum ImportFormat {
+        CSV, JSON;
+
+        /**
+         * Resolver el formato a partir del parámetro explícito o, si falta, de la extensión del fichero
+         */
+        public static ImportFormat resolve(String format, String filename) {
+            String value = format;
+            if (value == null || value.isBlank()) {
+                String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+                value = name.endsWith(".json") || name.endsWith(".ndjson") ? "json" : "csv";
+            }
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "json", "ndjson" -> JSON;
+                default -> throw new IllegalArgumentException("Unsupported import format: " + format);
+            };
+        }
+    }
+
+    private final BlockService blockService;
+    private final QuestionSearchIndex questionSearchIndex;
+    private final ProfileStatsService profileStatsService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public QuestionImportService(BlockService blockService,
+                                 QuestionSearchIndex questionSearchIndex,
+                                 ProfileStatsService profileStatsService,
+                                 JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${quizlive.import.batch-size:500}") int batchSize) {
+        this.blockService = blockService;
+        this.questionSearchIndex = questionSearchIndex;
+        this.profileStatsService = profileStatsService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Importar preguntas en un bloque del usuario
+     */
+    @Transactional
+    public QuestionImportResultDTO importQuestions(Long blockId, Long userId, InputStream input, ImportFormat format)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        Block block = blockService.getBlockById(blockId, userId);
+
+        ImportBatch batch = new ImportBatch(block.getId());
+        if (format == ImportFormat.JSON) {
+            readJson(input, batch);
+        } else {
+            readCsv(input, batch);
+        }
+        batch.flush();
+
+        // El índice de búsqueda se reconstruye en la siguiente búsqueda en lugar de indexar fila a fila
+        if (batch.result.getImported() > 0) {
+            questionSearchIndex.invalidate(userId);
+            profileStatsService.evict(userId);
+        }
+
+        QuestionImportResultDTO result = batch.result;
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        log.info("Imported {} questions into block {} ({} rejected) in {}ms",
+                result.getImported(), blockId, result.getFailed(), result.getElapsedMillis());
+        return result;
+    }
+
+    private void readCsv(InputStream input, ImportBatch batch) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+
+        // Saltar BOM (ficheros guardados desde Excel)
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        CsvRecordReader records = new CsvRecordReader(reader, detectSeparator(reader));
+
+        int row = 0;
+        List<String> fields;
+        while ((fields = records.next()) != null) {
+            row++;
+            if (fields.stream().allMatch(String::isBlank)) {
+                continue;
+            }
+            if (row == 1 && CSV_HEADER_NAMES.contains(fields.get(0).trim().toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            if (fields.size() != CSV_COLUMNS) {
+                batch.reject(row, "Expected " + CSV_COLUMNS + " columns, found " + fields.size());
+                continue;
+            }
+            batch.add(row, fields.get(0), fields.get(1), fields.get(2), fields.get(3), fields.get(4), fields.get(5));
+        }
+    }
+
+    // Excel en configuración regional española exporta con ';'
+    private static char detectSeparator(BufferedReader reader) throws IOException {
+        reader.mark(SEPARATOR_PEEK_CHARS);
+        char[] buffer = new char[SEPARATOR_PEEK_CHARS];
+        int length = reader.read(buffer, 0, buffer.length);
+        reader.reset();
+
+        int commas = 0;
+        int semicolons = 0;
+        for (int i = 0; i < length && buffer[i] != '\n'; i++) {
+            if (buffer[i] == ',') {
+                commas++;
+            } else if (buffer[i] == ';') {
+                semicolons++;
+            }
+        }
+        return semicolons > commas ? ';' : ',';
+    }
+
+    private void readJson(InputStream input, ImportBatch batch) throws IOException {
+        int row = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            JsonToken token = parser.nextToken();
+            // Se acepta un array de objetos o una secuencia de objetos (NDJSON)
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                row++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    batch.reject(row, "Expected a JSON object");
+                } else {
+                    JsonNode node = parser.readValueAsTree();
+                    batch.add(row, text(node, "text"), text(node, "option1"), text(node, "option2"),
+                            text(node, "option3"), text(node, "option4"), text(node, "correctOption"));
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON after row " + row + ": " + e.getOriginalMessage());
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * Filas validadas pendientes de insertar y resultado acumulado
+     */
+    private final class ImportBatch {
+        private final long blockId;
+        private final List<Question> pending = new ArrayList<>();
+        private final QuestionImportResultDTO result = new QuestionImportResultDTO();
+
+        private ImportBatch(long blockId) {
+            this.blockId = blockId;
+        }
+
+        private void add(int row, String text, String option1, String option2, String option3, String option4,
+                         String correctOption) {
+            Question question;
+            try {
+                question = toQuestion(text, option1, option2, option3, option4, correctOption);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                reject(row, e.getMessage());
+                return;
+            }
+            pending.add(question);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void reject(int row, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add(new QuestionImportResultDTO.RowError(row, message));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_QUESTION, pending, pending.size(), (ps, question) -> {
+                ps.setLong(1, blockId);
+                ps.setString(2, question.getText());
+                ps.setString(3, question.getOption1());
+                ps.setString(4, question.getOption2());
+                ps.setString(5, question.getOption3());
+                ps.setString(6, question.getOption4());
+                ps.setInt(7, question.getCorrectOption());
+            });
+            result.setImported(result.getImported() + pending.size());
+            pending.clear();
+        }
+    }
+
+    private static Question toQuestion(String text, String option1, String option2, String option3, String option4,
+                                       String correctOption) {
+        Question question = new Question();
+        question.setText(required(text, "Question text is required", MAX_TEXT_LENGTH));
+        question.setOption1(required(option1, "Option 1 is required", MAX_OPTION_LENGTH));
+        question.setOption2(required(option2, "Option 2 is required", MAX_OPTION_LENGTH));
+        question.setOption3(required(option3, "Option 3 is required", MAX_OPTION_LENGTH));
+        question.setOption4(required(option4, "Option 4 is required", MAX_OPTION_LENGTH));
+        question.setCorrectOption(parseCorrectOption(correctOption));
+        // Misma regla que al guardar con JPA (@PrePersist)
+        question.validateOptions();
+        return question;
+    }
+
+    private static String required(String value, String message, int maxLength) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(message);
+        }
+        String trimmed = value.trim();
+        if (trimmed.length() > maxLength) {
+            throw new IllegalArgumentException(message.replace(" is required", "") + " exceeds " + maxLength + " characters");
+        }
+        return trimmed;
+    }
+
+    private static Integer parseCorrectOption(String value) {
+        try {
+            int option = Integer.parseInt(value == null ? "" : value.trim());
+            if (option >= 1 && option <= 4) {
+                return option;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo con el mismo mensaje que la validación de la entidad
+        }
+        throw new IllegalArgumentException("Correct option must be between 1 and 4");
+    }
+
+    /**
+     * Lector CSV incremental (RFC 4180): campos entre comillas, "" como escape y saltos de línea dentro de campos
+     */
+    private static final class CsvRecordReader {
+        private static final int NONE = -2;
+
+        private final Reader reader;
+        private final char separator;
+        private int pushedBack = NONE;
+
+        private CsvRecordReader(Reader reader, char separator) {
+            this.reader = reader;
+            this.separator = separator;
+        }
+
+        /**
+         * Siguiente registro o null al final del fichero
+         */
+        private List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>(CSV_COLUMNS);
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Malformed CSV: unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        int following = read();
+                        if (following != '"') {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == separator) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            pushedBack = following;
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != NONE) {
+                int c = pushedBack;
+                pushedBack = NONE;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.quizlive.service;
+
+import com.quizlive.dto.QuestionDTO;
+import com.quizlive.model.Question;
+import com.quizlive.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria (uno por propietario) sobre el texto y las opciones de las preguntas
+ *
+ * - Tokenización sin acentos ni mayúsculas y sin palabras vacías del español
+ * - El índice de un usuario se construye al buscar por primera vez y después se mantiene
+ *   de forma incremental desde QuestionService (siempre tras el commit)
+ * - Cada término de la consulta debe aparecer (AND); los términos admiten coincidencia por prefijo
+ *   y el ranking suma pesos (enunciado &gt; opciones, exacto &gt; prefijo)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuestionSearchIndex {
+
+    private static final int TEXT_WEIGHT = 3;
+    private static final int OPTION_WEIGHT = 1;
+    private static final int EXACT_BOOST = 2;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOPWORDS = Set.of(
+            "el", "la", "los", "las", "un", "una", "unos", "unas", "lo", "al", "del", "de", "a", "en",
+            "y", "e", "o", "u", "que", "es", "por", "para", "con", "sin", "se", "su", "sus", "como");
+
+    private final QuestionRepository questionRepository;
+
+    private final ConcurrentHashMap<Long, OwnerIndex> owners = new ConcurrentHashMap<>();
+
+    private static final class OwnerIndex {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        // Diccionario ordenado para poder recorrer rangos de prefijo: término -> (pregunta -> peso)
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, IndexedQuestion> documents = new HashMap<>();
+
+        private void put(long questionId, long blockId, Map<String, Integer> terms) {
+            remove(questionId);
+            documents.put(questionId, new IndexedQuestion(blockId, terms));
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(questionId, weight));
+        }
+
+        private void remove(long questionId) {
+            IndexedQuestion previous = documents.remove(questionId);
+            if (previous == null) {
+                return;
+            }
+            for (String term : previous.terms().keySet()) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(questionId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    private record IndexedQuestion(long blockId, Map<String, Integer> terms) {
+    }
+
+    /**
+     * Buscar preguntas de un usuario; devuelve los IDs ordenados por relevancia
+     */
+    public List<Long> search(Long ownerId, String query, Long blockId, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        OwnerIndex index = getOrBuild(ownerId);
+        index.lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String term : queryTerms) {
+                Map<Long, Integer> termScores = scoreTerm(index, term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // AND: solo sobreviven las preguntas que contienen todos los términos
+                    Map<Long, Integer> previous = scores;
+                    termScores.keySet().retainAll(previous.keySet());
+                    termScores.replaceAll((id, score) -> score + previous.get(id));
+                    scores = termScores;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .filter(entry -> blockId == null || index.documents.get(entry.getKey()).blockId() == blockId)
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexar (o reindexar) una pregunta tras el commit de la transacción actual
+     */
+    public void indexQuestion(Long ownerId, Question question) {
+        long questionId = question.getId();
+        long blockId = question.getBlock().getId();
+        Map<String, Integer> terms = termWeights(question.getText(), question.getOption1(), question.getOption2(),
+                question.getOption3(), question.getOption4());
+        afterCommit(() -> withLoadedIndex(ownerId, index -> index.put(questionId, blockId, terms)));
+    }
+
+    /**
+     * Quitar una pregunta del índice tras el commit
+     */
+    public void removeQuestion(Long ownerId, Long questionId) {
+        afterCommit(() -> withLoadedIndex(ownerId, index -> index.remove(questionId)));
+    }
+
+    /**
+     * Quitar todas las preguntas de un bloque eliminado
+     */
+    public void removeBlock(Long ownerId, Long blockId) {
+        afterCommit(() -> withLoadedIndex(ownerId, index -> {
+            List<Long> questionIds = index.documents.entrySet().stream()
+                    .filter(entry -> entry.getValue().blockId() == blockId)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            questionIds.forEach(index::remove);
+        }));
+    }
+
+    /**
+     * Descartar el índice de un usuario (operaciones masivas): se reconstruye en la siguiente búsqueda
+     */
+    public void invalidate(Long ownerId) {
+        afterCommit(() -> owners.remove(ownerId));
+    }
+
+    private Map<Long, Integer> scoreTerm(OwnerIndex index, String term) {
+        Map<Long, Integer> scores = new HashMap<>();
+        Map<Long, Integer> exact = index.postings.get(term);
+        if (exact != null) {
+            exact.forEach((id, weight) -> scores.merge(id, weight * EXACT_BOOST, Math::max));
+        }
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            for (Map<Long, Integer> posting : index.postings.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+                posting.forEach((id, weight) -> scores.merge(id, weight, Math::max));
+            }
+        }
+        return scores;
+    }
+
+    private OwnerIndex getOrBuild(Long ownerId) {
+        OwnerIndex existing = owners.get(ownerId);
+        if (existing != null) {
+            return existing;
+        }
+
+        // Se publica el índice con el cerrojo de escritura tomado: búsquedas y actualizaciones esperan a la carga
+        OwnerIndex created = new OwnerIndex();
+        created.lock.writeLock().lock();
+        try {
+            existing = owners.putIfAbsent(ownerId, created);
+            if (existing != null) {
+                return existing;
+            }
+            long startTime = System.currentTimeMillis();
+            try {
+                for (QuestionDTO question : questionRepository.findSearchDocumentsByOwner(ownerId)) {
+                    created.put(question.getId(), question.getBlockId(), termWeights(question.getText(),
+                            question.getOption1(), question.getOption2(), question.getOption3(), question.getOption4()));
+                }
+            } catch (RuntimeException e) {
+                owners.remove(ownerId, created);
+                throw e;
+            }
+            log.info("Built search index for user {}: {} questions, {} terms in {}ms",
+                    ownerId, created.documents.size(), created.postings.size(), System.currentTimeMillis() - startTime);
+            return created;
+        } finally {
+            created.lock.writeLock().unlock();
+        }
+    }
+
+    private void withLoadedIndex(Long ownerId, java.util.function.Consumer<OwnerIndex> update) {
+        // Si el índice aún no se ha construido no hay nada que mantener: se cargará desde la base de datos
+        OwnerIndex index = owners.get(ownerId);
+        if (index == null) {
+            return;
+        }
+        index.lock.writeLock().lock();
+        try {
+            update.accept(index);
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Map<String, Integer> termWeights(String text, String... options) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : tokenize(text)) {
+            weights.merge(token, TEXT_WEIGHT, Integer::sum);
+        }
+        for (String option : options) {
+            for (String token : tokenize(option)) {
+                weights.merge(token, OPTION_WEIGHT, Integer::sum);
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Normalizar y trocear: "¿Cuál es la capital de España?" -> [cual, capital, espana]
+     */
+    static List<String> tokenize(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
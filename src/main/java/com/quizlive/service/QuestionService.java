@@ -1,14 +1,26 @@
 package com.quizlive.service;
 
+import com.quizlive.dto.QuestionDTO;
+import com.quizlive.dto.QuestionPageDTO;
 import com.quizlive.model.Block;
 import com.quizlive.model.Question;
 import com.quizlive.repository.QuestionRepository;
+import com.quizlive.repository.RoomQuestionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Servicio de gestión de preguntas
@@ -20,6 +32,12 @@ public class QuestionService {
 
     private final QuestionRepository questionRepository;
     private final BlockService blockService;
+    private final QuestionSearchIndex questionSearchIndex;
+    private final RoomQuestionRepository roomQuestionRepository;
+    private final ProfileStatsService profileStatsService;
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BULK_IDS = 1000;
 
     /**
  * Crear una nueva pregunta en un bloque
@@ -40,6 +58,8 @@ public class QuestionService {
         question.setCorrectOption(correctOption);
 
         Question saved = questionRepository.save(question);
+        questionSearchIndex.indexQuestion(userId, saved);
+        profileStatsService.evict(userId);
         log.info("Created question in block {}", blockId);
         return saved;
     }
@@ -82,7 +102,9 @@ public class QuestionService {
         question.setCorrectOption(correctOption);
 
         log.info("Updated question {}", questionId);
-        return questionRepository.save(question);
+        Question saved = questionRepository.save(question);
+        questionSearchIndex.indexQuestion(userId, saved);
+        return saved;
     }
 
     /**
@@ -92,6 +114,8 @@ public class QuestionService {
     public void deleteQuestion(Long questionId, Long userId) {
         Question question = getQuestionById(questionId, userId);
         questionRepository.delete(question);
+        questionSearchIndex.removeQuestion(userId, questionId);
+        profileStatsService.evict(userId);
         log.info("Deleted question {}", questionId);
     }
 
@@ -103,10 +127,42 @@ public class QuestionService {
     }
 
     /**
- * Obtener todas las preguntas de un usuario en todos sus bloques
+ * Buscar una página de preguntas del usuario (filtro opcional por bloque y texto, cursor por ID)
+ */
+    public QuestionPageDTO searchQuestions(Long userId, Long blockId, String text, Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String pattern = (text == null || text.isBlank()) ? null : "%" + escapeLike(text.trim().toLowerCase()) + "%";
+
+        // Se pide un elemento extra para saber si hay más páginas
+        List<QuestionDTO> items = questionRepository.findPageByOwner(userId, blockId, pattern,
+                afterId != null ? afterId : 0L, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+        }
+        Long nextCursor = items.isEmpty() ? null : items.get(items.size() - 1).getId();
+        return new QuestionPageDTO(items, nextCursor, hasMore);
+    }
+
+    /**
+ * Búsqueda de texto con el índice en memoria: resultados ordenados por relevancia
  */
-    public List<Question> getAllQuestionsByUser(Long userId) {
-        return questionRepository.findByBlock_Owner_Id(userId);
+    public List<QuestionDTO> searchQuestionsRanked(Long userId, String text, Long blockId, int limit) {
+        List<Long> rankedIds = questionSearchIndex.search(userId, text, blockId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, QuestionDTO> byId = questionRepository.findDtosByIdsAndOwner(rankedIds, userId).stream()
+                .collect(Collectors.toMap(QuestionDTO::getId, Function.identity()));
+        return rankedIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
 
     /**
@@ -126,6 +182,53 @@ public class QuestionService {
         copy.setCorrectOption(original.getCorrectOption());
         
         log.info("Duplicated question {} -> {}", questionId, copy.getText());
-        return questionRepository.save(copy);
+        Question saved = questionRepository.save(copy);
+        questionSearchIndex.indexQuestion(userId, saved);
+        profileStatsService.evict(userId);
+        return saved;
+    }
+
+    /**
+ * Duplicar varias preguntas con un único INSERT ... SELECT
+ */
+    @Transactional
+    public int duplicateQuestions(Collection<Long> questionIds, Long userId) {
+        Set<Long> ids = validateOwnedIds(questionIds, userId);
+        int duplicated = questionRepository.duplicateQuestionsByIds(ids);
+        questionSearchIndex.invalidate(userId);
+        profileStatsService.evict(userId);
+        log.info("Duplicated {} questions for user {}", duplicated, userId);
+        return duplicated;
+    }
+
+    /**
+ * Eliminar varias preguntas con un único DELETE (ninguna puede estar en uso en una sala)
+ */
+    @Transactional
+    public int deleteQuestions(Collection<Long> questionIds, Long userId) {
+        Set<Long> ids = validateOwnedIds(questionIds, userId);
+        if (roomQuestionRepository.existsByQuestionIdIn(ids)) {
+            throw new IllegalStateException("Cannot delete questions: some are used by one or more rooms");
+        }
+        int deleted = questionRepository.deleteByIdIn(ids);
+        questionSearchIndex.invalidate(userId);
+        profileStatsService.evict(userId);
+        log.info("Deleted {} questions for user {}", deleted, userId);
+        return deleted;
+    }
+
+    // Todas las preguntas deben existir y pertenecer al usuario; se comprueba con una sola consulta
+    private Set<Long> validateOwnedIds(Collection<Long> questionIds, Long userId) {
+        if (questionIds == null || questionIds.isEmpty()) {
+            throw new IllegalArgumentException("No questions selected");
+        }
+        Set<Long> ids = new HashSet<>(questionIds);
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("Too many questions selected (max " + MAX_BULK_IDS + ")");
+        }
+        if (questionRepository.findIdsByOwnerAndIdIn(userId, ids).size() != ids.size()) {
+            throw new IllegalArgumentException("Question not found");
+        }
+        return ids;
     }
-}
\ No newline at end of file
+}
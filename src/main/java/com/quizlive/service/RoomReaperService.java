@@ -0,0 +1,121 @@
+package com.quizlive.service;
+
+import com.quizlive.dto.ReaperStatsDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limpieza periódica de salas abandonadas
+ *
+ * - WAITING más antiguas que el TTL de espera: se caducan
+ * - Salas activas en el motor sin actividad: se desalojan (temporizadores cancelados, RoomState liberado)
+ * - RUNNING en base de datos sin estado en el motor: se finalizan
+ * - FINISHED más antiguas que el TTL de finalizadas: se libera su PIN
+ */
+@Service
+@Slf4j
+public class RoomReaperService {
+
+    private final GameEngineService gameEngineService;
+    private final RoomService roomService;
+    private final PinAllocator pinAllocator;
+    private final ScheduledExecutorService timerExecutor;
+
+    private final long intervalSeconds;
+    private final long waitingTtlMinutes;
+    private final long runningIdleTtlMinutes;
+    private final long finishedPinTtlMinutes;
+
+    // Métricas acumuladas desde el arranque
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong expiredWaitingRooms = new AtomicLong();
+    private final AtomicLong evictedIdleRooms = new AtomicLong();
+    private final AtomicLong finishedOrphanedRooms = new AtomicLong();
+    private final AtomicLong releasedPins = new AtomicLong();
+    private volatile long lastRunMillis;
+    private volatile long lastRunDurationMillis;
+
+    public RoomReaperService(GameEngineService gameEngineService,
+                             RoomService roomService,
+                             PinAllocator pinAllocator,
+                             @Qualifier("timerExecutor") ScheduledExecutorService timerExecutor,
+                             @Value("${quizlive.reaper.interval-seconds:60}") long intervalSeconds,
+                             @Value("${quizlive.reaper.waiting-ttl-minutes:120}") long waitingTtlMinutes,
+                             @Value("${quizlive.reaper.running-idle-ttl-minutes:15}") long runningIdleTtlMinutes,
+                             @Value("${quizlive.reaper.finished-pin-ttl-minutes:60}") long finishedPinTtlMinutes) {
+        this.gameEngineService = gameEngineService;
+        this.roomService = roomService;
+        this.pinAllocator = pinAllocator;
+        this.timerExecutor = timerExecutor;
+        this.intervalSeconds = intervalSeconds;
+        this.waitingTtlMinutes = waitingTtlMinutes;
+        this.runningIdleTtlMinutes = runningIdleTtlMinutes;
+        this.finishedPinTtlMinutes = finishedPinTtlMinutes;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (intervalSeconds <= 0) {
+            log.info("♻ [REAPER] Desactivado");
+            return;
+        }
+        timerExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                reap();
+            } catch (Exception e) {
+                log.error("♻ [REAPER] Error limpiando salas", e);
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Ejecutar una pasada completa de limpieza
+     */
+    public void reap() {
+        long startTime = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        int expired = roomService.expireWaitingRooms(now.minusMinutes(waitingTtlMinutes));
+
+        List<String> evicted = gameEngineService.evictIdleRooms(TimeUnit.MINUTES.toMillis(runningIdleTtlMinutes));
+
+        int orphaned = roomService.finishOrphanedRooms(now.minusMinutes(runningIdleTtlMinutes),
+                new HashSet<>(gameEngineService.getActiveRoomPins()));
+
+        // Los PINs vuelven al pool después del commit, cuando ninguna fila los referencia ya
+        List<String> released = roomService.releaseFinishedPins(now.minusMinutes(finishedPinTtlMinutes));
+        released.forEach(pinAllocator::release);
+
+        runs.incrementAndGet();
+        expiredWaitingRooms.addAndGet(expired);
+        evictedIdleRooms.addAndGet(evicted.size());
+        finishedOrphanedRooms.addAndGet(orphaned);
+        releasedPins.addAndGet(released.size());
+        lastRunMillis = startTime;
+        lastRunDurationMillis = System.currentTimeMillis() - startTime;
+
+        if (expired + evicted.size() + orphaned + released.size() > 0) {
+            log.info("♻ [REAPER] {} en espera caducadas, {} activas desalojadas, {} huérfanas finalizadas, {} PINs liberados ({}ms)",
+                    expired, evicted.size(), orphaned, released.size(), lastRunDurationMillis);
+        }
+    }
+
+    /**
+     * Métricas del reaper para el endpoint de monitorización
+     */
+    public ReaperStatsDTO getStats() {
+        return new ReaperStatsDTO(runs.get(), expiredWaitingRooms.get(), evictedIdleRooms.get(),
+                finishedOrphanedRooms.get(), releasedPins.get(), lastRunMillis, lastRunDurationMillis,
+                gameEngineService.estimateRetainedBytes(), pinAllocator.getFreeCount());
+    }
+}
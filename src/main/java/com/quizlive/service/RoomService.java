@@ -1,5 +1,7 @@
 package com.quizlive.service;
 
+import com.quizlive.dto.RoomHistoryDTO;
+import com.quizlive.dto.RoomHistoryPageDTO;
 import com.quizlive.model.*;
 import com.quizlive.repository.QuestionRepository;
 import com.quizlive.repository.RoomQuestionRepository;
@@ -7,11 +9,14 @@ import com.quizlive.repository.RoomRepository;
 import com.quizlive.repository.PlayerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.SecureRandom;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,25 +24,32 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RoomService {
 
+    private static final String INSERT_ROOM_QUESTION =
+            "INSERT INTO room_questions (room_id, question_id, order_num, is_open) VALUES (?, ?, ?, ?)";
+    private static final int ROOM_QUESTION_BATCH_SIZE = 100;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final RoomRepository roomRepository;
     private final RoomQuestionRepository roomQuestionRepository;
     private final QuestionRepository questionRepository;
     private final BlockService blockService;
     private final PlayerRepository playerRepository;
-    private final SecureRandom random = new SecureRandom();
+    private final PinAllocator pinAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final RoomUpdateNotifier roomUpdateNotifier;
 
     @Transactional
     public Room createRoom(Long blockId, Integer numQuestions, Room.SelectionMode selectionMode,
                           Integer timePerQuestion, User host, List<Long> manualQuestionIds) {
         Block block = blockService.getBlockById(blockId, host.getId());
 
-        // Validar que el bloque tiene suficientes preguntas
+        // Validar que el bloque tiene suficientes preguntas (COUNT, sin cargar la colección)
         // Las preguntas pueden ser reutilizadas en múltiples salas
-        if (numQuestions > block.getQuestions().size()) {
+        if (numQuestions > questionRepository.countByBlockId(blockId)) {
             throw new IllegalArgumentException("Number of questions exceeds available questions in block");
         }
 
-        String pin = generateUniquePin();
+        String pin = pinAllocator.allocate();
 
         Room room = new Room();
         room.setPin(pin);
@@ -48,9 +60,15 @@ public class RoomService {
         room.setTimePerQuestion(timePerQuestion);
         room.setState(Room.RoomState.WAITING);
 
-        Room savedRoom = roomRepository.save(room);
-
-        selectQuestionsForRoom(savedRoom, selectionMode, numQuestions, manualQuestionIds);
+        Room savedRoom;
+        try {
+            savedRoom = roomRepository.save(room);
+            selectQuestionsForRoom(savedRoom, selectionMode, numQuestions, manualQuestionIds);
+        } catch (RuntimeException e) {
+            // La sala no se crea: el PIN vuelve al pool
+            pinAllocator.release(pin);
+            throw e;
+        }
 
         log.info("Created room with PIN {} for user {}", pin, host.getUsername());
         return savedRoom;
@@ -59,41 +77,51 @@ public class RoomService {
     @Transactional
     public void selectQuestionsForRoom(Room room, Room.SelectionMode mode, 
                                         int numQuestions, List<Long> manualQuestionIds) {
-        List<Question> selectedQuestions;
+        Long blockId = room.getBlock().getId();
+        List<Long> selectedIds;
 
         if (mode == Room.SelectionMode.MANUAL) {
             if (manualQuestionIds == null || manualQuestionIds.size() != numQuestions) {
                 throw new IllegalArgumentException("Must provide exactly " + numQuestions + " question IDs for manual mode");
             }
-            selectedQuestions = questionRepository.findAllById(manualQuestionIds);
+            Set<Long> inBlock = new HashSet<>(questionRepository.findIdsByBlockIdAndIdIn(blockId, manualQuestionIds));
+            if (inBlock.size() != numQuestions || !inBlock.containsAll(manualQuestionIds)) {
+                throw new IllegalArgumentException("Manual question IDs must be distinct questions of the room's block");
+            }
+            selectedIds = manualQuestionIds;
         } else {
-            List<Question> allQuestions = room.getBlock().getQuestions();
-            selectedQuestions = selectRandomQuestions(allQuestions, numQuestions);
+            // Solo se cargan los IDs: las entidades Question no hacen falta para crear la sala
+            selectedIds = sampleIds(questionRepository.findIdsByBlockId(blockId), numQuestions);
         }
 
-        int orderNum = 1;
-        for (Question question : selectedQuestions) {
-            RoomQuestion roomQuestion = new RoomQuestion();
-            roomQuestion.setRoom(room);
-            roomQuestion.setQuestion(question);
-            roomQuestion.setOrderNum(orderNum++);
-            roomQuestion.setIsOpen(false);
-            roomQuestionRepository.save(roomQuestion);
-        }
-    }
-
-    private String generateUniquePin() {
-        String pin;
-        do {
-            pin = String.format("%04d", random.nextInt(10000));
-        } while (roomRepository.existsByPin(pin));
-        return pin;
+        // Inserción por lotes JDBC: con IDENTITY, Hibernate haría un INSERT por pregunta
+        int[] orderNum = {1};
+        jdbcTemplate.batchUpdate(INSERT_ROOM_QUESTION, selectedIds, ROOM_QUESTION_BATCH_SIZE, (ps, questionId) -> {
+            ps.setLong(1, room.getId());
+            ps.setLong(2, questionId);
+            ps.setInt(3, orderNum[0]++);
+            ps.setBoolean(4, false);
+        });
     }
 
-    private List<Question> selectRandomQuestions(List<Question> questions, int count) {
-        List<Question> shuffled = new ArrayList<>(questions);
-        Collections.shuffle(shuffled);
-        return shuffled.stream().limit(count).collect(Collectors.toList());
+    /**
+     * Muestreo sin reemplazo con Fisher–Yates parcial: solo se barajan las count primeras posiciones
+     */
+    private List<Long> sampleIds(List<Long> ids, int count) {
+        if (count > ids.size()) {
+            throw new IllegalArgumentException("Number of questions exceeds available questions in block");
+        }
+        long[] pool = ids.stream().mapToLong(Long::longValue).toArray();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> sample = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(pool.length - i);
+            long picked = pool[j];
+            pool[j] = pool[i];
+            pool[i] = picked;
+            sample.add(picked);
+        }
+        return sample;
     }
 
     public Room getRoomByPin(String pin) {
@@ -110,6 +138,29 @@ public class RoomService {
         return roomRepository.findByHostId(hostId);
     }
 
+    /**
+     * Historial paginado de un anfitrión (más recientes primero) con agregados por sala
+     * Dos consultas por página, sea cual sea el número de salas o de respuestas.
+     */
+    @Transactional(readOnly = true)
+    public RoomHistoryPageDTO getRoomHistory(Long hostId, Long beforeId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+
+        // Se pide un elemento extra para saber si hay más páginas
+        List<Long> ids = roomRepository.findHistoryIdsByHost(hostId,
+                beforeId != null ? beforeId : Long.MAX_VALUE, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        if (ids.isEmpty()) {
+            return new RoomHistoryPageDTO(List.of(), null, false);
+        }
+
+        List<RoomHistoryDTO> items = roomRepository.findHistoryByIds(ids);
+        return new RoomHistoryPageDTO(items, ids.get(ids.size() - 1), hasMore);
+    }
+
     public List<RoomQuestion> getRoomQuestions(Long roomId) {
         return roomQuestionRepository.findByRoomIdOrderByOrderNumAsc(roomId);
     }
@@ -125,6 +176,7 @@ public class RoomService {
 
         room.start();
         roomRepository.save(room);
+        roomUpdateNotifier.publish(room.getId());
         log.info("[Room {}] Game started by host {}", room.getPin(), room.getHost().getUsername());
     }
 
@@ -135,9 +187,57 @@ public class RoomService {
         
         room.finish();
         roomRepository.save(room);
+        roomUpdateNotifier.publish(room.getId());
         log.info("[Room {}] Game finished", room.getPin());
     }
 
+    /**
+     * Caducar las salas que siguen en WAITING desde antes de cutoff (el anfitrión abandonó el lobby)
+     */
+    @Transactional
+    public int expireWaitingRooms(LocalDateTime cutoff) {
+        List<Room> rooms = roomRepository.findByStateAndCreatedAtBefore(Room.RoomState.WAITING, cutoff);
+        for (Room room : rooms) {
+            room.expire();
+            roomUpdateNotifier.publish(room.getId());
+            log.info("[Room {}] Expired after waiting since {}", room.getPin(), room.getCreatedAt());
+        }
+        roomRepository.saveAll(rooms);
+        return rooms.size();
+    }
+
+    /**
+     * Finalizar las salas RUNNING sin estado en el motor de juego (error a mitad de partida o reinicio)
+     */
+    @Transactional
+    public int finishOrphanedRooms(LocalDateTime cutoff, Set<String> activePins) {
+        List<Room> rooms = roomRepository.findByStateAndStartedAtBefore(Room.RoomState.RUNNING, cutoff).stream()
+                .filter(room -> !activePins.contains(room.getPin()))
+                .collect(Collectors.toList());
+        for (Room room : rooms) {
+            room.finish();
+            roomUpdateNotifier.publish(room.getId());
+            log.info("[Room {}] Orphaned running room finished", room.getPin());
+        }
+        roomRepository.saveAll(rooms);
+        return rooms.size();
+    }
+
+    /**
+     * Liberar los PINs de las salas finalizadas antes de cutoff; devuelve los PINs liberados
+     */
+    @Transactional
+    public List<String> releaseFinishedPins(LocalDateTime cutoff) {
+        List<Room> rooms = roomRepository.findByStateAndFinishedAtBeforeAndPinIsNotNull(Room.RoomState.FINISHED, cutoff);
+        List<String> released = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            released.add(room.getPin());
+            room.releasePin();
+        }
+        roomRepository.saveAll(rooms);
+        return released;
+    }
+
     @Transactional
     public RoomQuestion getNextQuestion(Long roomId) {
         Room room = roomRepository.findById(roomId)
@@ -0,0 +1,93 @@
+package com.quizlive.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Avisos de cambio de estado por sala para las peticiones long-poll
+ *
+ * Cada petición aparcada se suscribe a su sala; cuando el estado cambia (nueva pregunta, cierre, inicio o fin
+ * de partida) se avisa una vez a todos los suscriptores y se vacía la lista: el cliente vuelve a suscribirse
+ * con la nueva versión. El aviso se lanza después del commit para que quien lo reciba ya lea el estado nuevo.
+ * Los avisos corren en el hilo que publica: los suscriptores comparten a través de RoomUpdate lo que leen,
+ * para que una sala con N peticiones aparcadas no haga N consultas en la petición del anfitrión.
+ */
+@Component
+@Slf4j
+public class RoomUpdateNotifier {
+
+    private final ConcurrentHashMap<Long, Set<Consumer<RoomUpdate>>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Un cambio de sala tal como lo ven sus suscriptores: lo que uno calcula con shared() lo reutilizan los demás
+     */
+    public static final class RoomUpdate {
+
+        // Los suscriptores se avisan uno tras otro en el mismo hilo
+        private final Map<String, Object> shared = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        public <T> T shared(String key, Supplier<T> loader) {
+            return (T) shared.computeIfAbsent(key, k -> loader.get());
+        }
+    }
+
+    /**
+     * Registrar un aviso para el próximo cambio de la sala; retorna la acción que lo cancela
+     * Quien se suscribe debe volver a comprobar el estado después: un cambio publicado justo antes no se avisa.
+     */
+    public Runnable subscribe(Long roomId, Consumer<RoomUpdate> listener) {
+        listeners.computeIfAbsent(roomId, id -> ConcurrentHashMap.newKeySet()).add(listener);
+        return () -> listeners.computeIfPresent(roomId, (id, roomListeners) -> {
+            roomListeners.remove(listener);
+            return roomListeners.isEmpty() ? null : roomListeners;
+        });
+    }
+
+    public void publish(Long roomId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fire(roomId);
+                }
+            });
+        } else {
+            fire(roomId);
+        }
+    }
+
+    /**
+     * Peticiones aparcadas en este momento (todas las salas)
+     */
+    public int getWaitingCount() {
+        return listeners.values().stream()
+                .mapToInt(Set::size)
+                .sum();
+    }
+
+    private void fire(Long roomId) {
+        Set<Consumer<RoomUpdate>> roomListeners = listeners.remove(roomId);
+        if (roomListeners == null) {
+            return;
+        }
+        RoomUpdate update = new RoomUpdate();
+        for (Consumer<RoomUpdate> listener : roomListeners) {
+            try {
+                listener.accept(update);
+            } catch (Exception e) {
+                log.warn("Error notifying room {} update: {}", roomId, e.getMessage());
+            }
+        }
+        log.debug("Room {} update notified to {} waiting requests", roomId, roomListeners.size());
+    }
+}
@@ -8,8 +8,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Servicio para gestión de usuarios y autenticación
+ *
+ * Guarda en memoria el perfil de cada anfitrión con sesión (por email) para la barra lateral y las páginas
+ * del host; se descarta al actualizar el perfil o la contraseña.
  */
 @Service
 @RequiredArgsConstructor
@@ -19,6 +26,16 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
+    private static final int PROFILE_CACHE_LIMIT = 1000;
+    // LRU: al superar el límite sale el perfil usado hace más tiempo, no toda la caché
+    private final Map<String, User> profiles = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, User> eldest) {
+                    return size() > PROFILE_CACHE_LIMIT;
+                }
+            });
+
     /**
  * Registrar un nuevo usuario
  */
@@ -43,15 +60,26 @@ public class UserService {
     }
 
     /**
- * Buscar usuario por nombre de usuario
+ * Perfil del usuario con sesión, de la caché si ya se cargó
+ * La entidad está desacoplada y se comparte entre peticiones: solo lectura. Para modificarla, findByEmail.
  */
+    public User getProfile(AuthenticatedUser principal) {
+        User cached = profiles.get(principal.getEmail());
+        if (cached != null) {
+            return cached;
+        }
+        User user = findByEmail(principal.getEmail());
+        profiles.put(principal.getEmail(), user);
+        return user;
+    }
+
     /**
- * Buscar usuario por nombre de usuario
+ * Descartar el perfil en caché (tras actualizar el perfil o la contraseña)
  */
-    public User findByUsername(String identifier) {
-        return userRepository.findByUsername(identifier)
-                .or(() -> userRepository.findByEmail(identifier))
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + identifier));
+    public void evictProfile(String email) {
+        if (email != null) {
+            profiles.remove(email);
+        }
     }
 
     /**
@@ -0,0 +1,101 @@
+-- Esquema inicial: el mismo que generaba Hibernate a partir de las entidades (perfil dev, H2 en memoria)
+
+CREATE TABLE users (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username     VARCHAR(50)  NOT NULL,
+    password     VARCHAR(255) NOT NULL,
+    email        VARCHAR(255),
+    role         VARCHAR(255) NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    avatar_color VARCHAR(7),
+    display_name VARCHAR(100),
+    total_points INTEGER,
+    quizzes_won  INTEGER,
+    bio          VARCHAR(500),
+    enabled      BOOLEAN      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UK_r43af9ap4edm43mmtq01oddj6 UNIQUE (username),
+    CONSTRAINT UK_6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)
+);
+
+CREATE TABLE blocks (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name        VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    user_id     BIGINT       NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FKpu9d2f26jeb31f1203lmjv4ny FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_blocks_owner ON blocks (user_id);
+
+CREATE TABLE questions (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    block_id       BIGINT        NOT NULL,
+    text           VARCHAR(1000) NOT NULL,
+    option1        VARCHAR(500)  NOT NULL,
+    option2        VARCHAR(500)  NOT NULL,
+    option3        VARCHAR(500)  NOT NULL,
+    option4        VARCHAR(500)  NOT NULL,
+    correct_option INTEGER       NOT NULL CHECK (correct_option >= 1 AND correct_option <= 4),
+    PRIMARY KEY (id),
+    CONSTRAINT FK7a3nt21g39gjp9x5lqjvx4u4o FOREIGN KEY (block_id) REFERENCES blocks (id)
+);
+
+CREATE INDEX idx_questions_block ON questions (block_id);
+
+CREATE TABLE rooms (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    pin               VARCHAR(6),
+    host_id           BIGINT       NOT NULL,
+    block_id          BIGINT       NOT NULL,
+    num_questions     INTEGER      NOT NULL CHECK (num_questions >= 1),
+    selection_mode    VARCHAR(20)  NOT NULL CHECK (selection_mode IN ('MANUAL','RANDOM')),
+    time_per_question INTEGER      NOT NULL CHECK (time_per_question >= 5),
+    state             VARCHAR(20)  NOT NULL CHECK (state IN ('WAITING','RUNNING','FINISHED')),
+    created_at        TIMESTAMP(6) NOT NULL,
+    started_at        TIMESTAMP(6),
+    finished_at       TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UK_t40emxnm70ew3x3i0oxfbjr3m UNIQUE (pin),
+    CONSTRAINT FKoxd2xovikhdpk4si9ffhyb83i FOREIGN KEY (host_id) REFERENCES users (id),
+    CONSTRAINT FKet34ok74mp6u5wnvwd2u8awcj FOREIGN KEY (block_id) REFERENCES blocks (id)
+);
+
+CREATE TABLE players (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    room_id   BIGINT       NOT NULL,
+    name      VARCHAR(100) NOT NULL,
+    score     INTEGER      NOT NULL,
+    joined_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FKqexmrpaqt5ehudn8i7yj6b38y FOREIGN KEY (room_id) REFERENCES rooms (id)
+);
+
+CREATE TABLE room_questions (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    room_id     BIGINT       NOT NULL,
+    question_id BIGINT       NOT NULL,
+    order_num   INTEGER      NOT NULL,
+    is_open     BOOLEAN      NOT NULL,
+    start_time  TIMESTAMP(6),
+    close_time  TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FKc21vwprtx1lv9swpkta6ymdlp FOREIGN KEY (room_id) REFERENCES rooms (id),
+    CONSTRAINT FKk374w1hhooepuwlxqn45o9ikd FOREIGN KEY (question_id) REFERENCES questions (id)
+);
+
+CREATE TABLE answers (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    player_id        BIGINT       NOT NULL,
+    room_question_id BIGINT       NOT NULL,
+    selected_option  INTEGER      NOT NULL CHECK (selected_option >= 1 AND selected_option <= 4),
+    response_time    BIGINT       NOT NULL,
+    is_correct       BOOLEAN      NOT NULL,
+    points_earned    INTEGER      NOT NULL,
+    submitted_at     TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FKqtur86u5xm25bvgqdd0kvec44 FOREIGN KEY (player_id) REFERENCES players (id),
+    CONSTRAINT FKiw965wbsjn6a7oeybqm9kobl0 FOREIGN KEY (room_question_id) REFERENCES room_questions (id)
+);
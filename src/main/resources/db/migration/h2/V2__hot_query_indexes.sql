@@ -0,0 +1,26 @@
+-- Índices compuestos y restricciones para las consultas más frecuentes (planes documentados en BASE_DE_DATOS.md)
+
+-- answers: una respuesta por jugador y pregunta de sala. Antes de crear la restricción se eliminan
+-- los duplicados que hubiera (se conserva la primera respuesta).
+DELETE FROM answers
+WHERE id NOT IN (
+    SELECT keep_id FROM (
+        SELECT MIN(id) AS keep_id FROM answers GROUP BY player_id, room_question_id
+    ) AS first_answers
+);
+ALTER TABLE answers ADD CONSTRAINT uq_answers_player_room_question UNIQUE (player_id, room_question_id);
+
+-- answers: recuentos por pregunta (countByRoomQuestionId) y aciertos/fallos por pregunta en el podio
+CREATE INDEX idx_answers_room_question_correct ON answers (room_question_id, is_correct);
+
+-- players: búsqueda por sala y nombre (unirse, responder). Sin índice sobre score: cada respuesta lo actualiza
+CREATE INDEX idx_players_room_name ON players (room_id, name);
+
+-- room_questions: preguntas de una sala en orden
+CREATE INDEX idx_room_questions_room_order ON room_questions (room_id, order_num);
+
+-- rooms: limpieza por estado y antigüedad (reaper) y salas activas al arrancar
+CREATE INDEX idx_rooms_state_created ON rooms (state, created_at);
+
+-- rooms.pin se libera (NULL) cuando una sala finalizada caduca; esquemas antiguos lo tenían NOT NULL
+ALTER TABLE rooms ALTER COLUMN pin SET NULL;
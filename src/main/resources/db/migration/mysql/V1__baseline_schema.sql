@@ -0,0 +1,102 @@
+-- Esquema inicial: el mismo que generaba Hibernate (ddl-auto=update) a partir de las entidades.
+-- En bases de datos ya creadas por Hibernate, Flyway las marca como versión 1 (baseline) y no ejecuta este script.
+
+CREATE TABLE users (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    username     VARCHAR(50)  NOT NULL,
+    password     VARCHAR(255) NOT NULL,
+    email        VARCHAR(255),
+    role         VARCHAR(255) NOT NULL,
+    created_at   DATETIME(6)  NOT NULL,
+    avatar_color VARCHAR(7),
+    display_name VARCHAR(100),
+    total_points INTEGER,
+    quizzes_won  INTEGER,
+    bio          VARCHAR(500),
+    enabled      BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UK_r43af9ap4edm43mmtq01oddj6 UNIQUE (username),
+    CONSTRAINT UK_6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE blocks (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    user_id     BIGINT       NOT NULL,
+    created_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FKpu9d2f26jeb31f1203lmjv4ny FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_blocks_owner ON blocks (user_id);
+
+CREATE TABLE questions (
+    id             BIGINT        NOT NULL AUTO_INCREMENT,
+    block_id       BIGINT        NOT NULL,
+    text           VARCHAR(1000) NOT NULL,
+    option1        VARCHAR(500)  NOT NULL,
+    option2        VARCHAR(500)  NOT NULL,
+    option3        VARCHAR(500)  NOT NULL,
+    option4        VARCHAR(500)  NOT NULL,
+    correct_option INTEGER       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FK7a3nt21g39gjp9x5lqjvx4u4o FOREIGN KEY (block_id) REFERENCES blocks (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_questions_block ON questions (block_id);
+
+CREATE TABLE rooms (
+    id                BIGINT      NOT NULL AUTO_INCREMENT,
+    pin               VARCHAR(6),
+    host_id           BIGINT      NOT NULL,
+    block_id          BIGINT      NOT NULL,
+    num_questions     INTEGER     NOT NULL,
+    selection_mode    ENUM ('MANUAL','RANDOM') NOT NULL,
+    time_per_question INTEGER     NOT NULL,
+    state             ENUM ('WAITING','RUNNING','FINISHED') NOT NULL,
+    created_at        DATETIME(6) NOT NULL,
+    started_at        DATETIME(6),
+    finished_at       DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UK_t40emxnm70ew3x3i0oxfbjr3m UNIQUE (pin),
+    CONSTRAINT FKoxd2xovikhdpk4si9ffhyb83i FOREIGN KEY (host_id) REFERENCES users (id),
+    CONSTRAINT FKet34ok74mp6u5wnvwd2u8awcj FOREIGN KEY (block_id) REFERENCES blocks (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE players (
+    id        BIGINT       NOT NULL AUTO_INCREMENT,
+    room_id   BIGINT       NOT NULL,
+    name      VARCHAR(100) NOT NULL,
+    score     INTEGER      NOT NULL,
+    joined_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FKqexmrpaqt5ehudn8i7yj6b38y FOREIGN KEY (room_id) REFERENCES rooms (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE room_questions (
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    room_id     BIGINT      NOT NULL,
+    question_id BIGINT      NOT NULL,
+    order_num   INTEGER     NOT NULL,
+    is_open     BIT         NOT NULL,
+    start_time  DATETIME(6),
+    close_time  DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FKc21vwprtx1lv9swpkta6ymdlp FOREIGN KEY (room_id) REFERENCES rooms (id),
+    CONSTRAINT FKk374w1hhooepuwlxqn45o9ikd FOREIGN KEY (question_id) REFERENCES questions (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE answers (
+    id               BIGINT      NOT NULL AUTO_INCREMENT,
+    player_id        BIGINT      NOT NULL,
+    room_question_id BIGINT      NOT NULL,
+    selected_option  INTEGER     NOT NULL,
+    response_time    BIGINT      NOT NULL,
+    is_correct       BIT         NOT NULL,
+    points_earned    INTEGER     NOT NULL,
+    submitted_at     DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT FKqtur86u5xm25bvgqdd0kvec44 FOREIGN KEY (player_id) REFERENCES players (id),
+    CONSTRAINT FKiw965wbsjn6a7oeybqm9kobl0 FOREIGN KEY (room_question_id) REFERENCES room_questions (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,11 @@
+-- Reserva de PINs de sala compartida por todos los nodos: asignar un PIN es insertar su fila
+-- (la clave primaria decide qué nodo se lo queda) y liberarlo es borrarla.
+CREATE TABLE room_pins (
+    pin        VARCHAR(6)  NOT NULL,
+    claimed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (pin)
+) ENGINE=InnoDB;
+
+-- Los PINs de las salas existentes ya están reservados
+INSERT INTO room_pins (pin, claimed_at)
+SELECT pin, created_at FROM rooms WHERE pin IS NOT NULL;
@@ -1,86 +0,0 @@
--- Create database
-CREATE DATABASE IF NOT EXISTS kahoot;
-USE kahoot;
-
--- Users table
-CREATE TABLE IF NOT EXISTS users (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    username VARCHAR(50) NOT NULL UNIQUE,
-    password VARCHAR(100) NOT NULL,
-    role VARCHAR(20) NOT NULL DEFAULT 'USER',
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
-
--- Blocks table
-CREATE TABLE IF NOT EXISTS blocks (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    name VARCHAR(100) NOT NULL,
-    description TEXT,
-    user_id BIGINT NOT NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-);
-
--- Questions table
-CREATE TABLE IF NOT EXISTS questions (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    block_id BIGINT NOT NULL,
-    text VARCHAR(1000) NOT NULL,
-    option1 VARCHAR(500) NOT NULL,
-    option2 VARCHAR(500) NOT NULL,
-    option3 VARCHAR(500) NOT NULL,
-    option4 VARCHAR(500) NOT NULL,
-    correct_option INT NOT NULL CHECK (correct_option BETWEEN 1 AND 4),
-    FOREIGN KEY (block_id) REFERENCES blocks(id) ON DELETE CASCADE
-);
-
--- Rooms table
-CREATE TABLE IF NOT EXISTS rooms (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    pin VARCHAR(10) NOT NULL UNIQUE,
-    block_id BIGINT NOT NULL,
-    owner_id BIGINT NOT NULL,
-    status VARCHAR(20) NOT NULL,
-    current_question_index INT DEFAULT 0,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (block_id) REFERENCES blocks(id),
-    FOREIGN KEY (owner_id) REFERENCES users(id)
-);
-
--- Players table
-CREATE TABLE IF NOT EXISTS players (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    room_id BIGINT NOT NULL,
-    nickname VARCHAR(50) NOT NULL,
-    score INT DEFAULT 0,
-    joined_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (room_id) REFERENCES rooms(id) ON DELETE CASCADE
-);
-
--- Room Questions (questions actually used in a room session)
-CREATE TABLE IF NOT EXISTS room_questions (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    room_id BIGINT NOT NULL,
-    question_id BIGINT NOT NULL,
-    question_order INT NOT NULL,
-    FOREIGN KEY (room_id) REFERENCES rooms(id) ON DELETE CASCADE,
-    FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE CASCADE
-);
-
--- Answers (player responses)
-CREATE TABLE IF NOT EXISTS answers (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    room_question_id BIGINT NOT NULL,
-    player_id BIGINT NOT NULL,
-    selected_option INT NOT NULL,
-    is_correct BOOLEAN NOT NULL,
-    response_time BIGINT,
-    points_earned INT DEFAULT 0,
-    submitted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (room_question_id) REFERENCES room_questions(id) ON DELETE CASCADE,
-    FOREIGN KEY (player_id) REFERENCES players(id) ON DELETE CASCADE
-);
-
--- Insert sample admin user (password: admin123)
--- Note: Password should be BCrypt encoded in production. This is just a placeholder.
-INSERT INTO users (username, password, role) VALUES ('admin', '$2a$10$dXJ3SW6G7P50lGmMkkmwe.20cQQubK3.HZWzG3YB1tlRy.fqvM/BG', 'ADMIN');
@@ -1,8 +1,13 @@
 // Estado global
 let allQuestions = [];
+let nextCursor = null;
+let searchTimer = null;
 let deleteId = null;
+const selectedIds = new Set();
+const PAGE_SIZE = 50;
 const questionModal = new bootstrap.Modal(document.getElementById('questionModal'));
 const deleteModal = new bootstrap.Modal(document.getElementById('deleteModal'));
+const importModal = new bootstrap.Modal(document.getElementById('importModal'));
 const toast = new bootstrap.Toast(document.getElementById('liveToast'));
 
 // Inicialización
@@ -33,10 +38,12 @@ async function loadBlocks() {
         const response = await axios.get('/api/blocks');
         const blocks = response.data;
         const select = document.getElementById('blockSelect');
+        const importSelect = document.getElementById('importBlockSelect');
         const filter = document.getElementById('filterBlock');
         
         // Limpiar existentes (mantener primera opción)
         select.innerHTML = '<option value="" selected disabled>Selecciona un bloque</option>';
+        importSelect.innerHTML = '<option value="" selected disabled>Selecciona un bloque</option>';
         filter.innerHTML = '<option value="">Todos los Bloques</option>';
 
         blocks.forEach(block => {
@@ -45,10 +52,11 @@ async function loadBlocks() {
             option.value = block.id;
             option.textContent = block.name;
             select.appendChild(option);
+            importSelect.appendChild(option.cloneNode(true));
 
             // Añadir al filtro
             const filterOption = document.createElement('option');
-            filterOption.value = block.name; // Filtrar por nombre para simplificar el filtrado en frontend
+            filterOption.value = block.id; // El filtrado se hace en el servidor por ID de bloque
             filterOption.textContent = block.name;
             filter.appendChild(filterOption);
         });
@@ -58,19 +66,45 @@ async function loadBlocks() {
     }
 }
 
-// Cargar preguntas
-async function loadQuestions() {
+// Cargar preguntas (paginadas y filtradas en el servidor)
+// reset = true vuelve a la primera página; false añade la siguiente página
+// Con texto de búsqueda se usa el índice del servidor y los resultados llegan ordenados por relevancia
+async function loadQuestions(reset = true) {
+    const searchText = document.getElementById('searchInput').value.trim();
+    const blockFilter = document.getElementById('filterBlock').value;
+
     try {
-        const response = await axios.get('/api/questions');
-        allQuestions = response.data;
-        // Aplicar filtros actuales en lugar de renderizar todo
-        filterQuestions();
+        if (searchText) {
+            const params = { q: searchText, limit: 100 };
+            if (blockFilter) params.blockId = blockFilter;
+            const response = await axios.get('/api/questions/search', { params });
+            allQuestions = response.data;
+            nextCursor = null;
+        } else {
+            const params = { size: PAGE_SIZE };
+            if (blockFilter) params.blockId = blockFilter;
+            if (!reset && nextCursor) params.after = nextCursor;
+            const response = await axios.get('/api/questions', { params });
+            const page = response.data;
+            allQuestions = reset ? page.items : allQuestions.concat(page.items);
+            nextCursor = page.hasMore ? page.nextCursor : null;
+        }
+        if (reset) {
+            selectedIds.clear();
+        }
+        renderQuestions(allQuestions);
+        updateBulkActions();
+        document.getElementById('loadMoreContainer').style.display = nextCursor ? 'block' : 'none';
     } catch (error) {
         showToast('Error', 'No se pudieron cargar las preguntas.', 'text-danger');
         console.error(error);
     }
 }
 
+function loadMoreQuestions() {
+    loadQuestions(false);
+}
+
 async function duplicateQuestion(id) {
     try {
         await axios.post(`/api/questions/${id}/duplicate`);
@@ -90,7 +124,7 @@ function renderQuestions(questions) {
     if (questions.length === 0) {
         tbody.innerHTML = `
             <tr>
-                <td colspan="5" class="text-center py-5 text-muted">
+                <td colspan="6" class="text-center py-5 text-muted">
                     <i class="fas fa-inbox fa-3x mb-3"></i>
                     <p>No hay preguntas todavía. ¡Crea una nueva!</p>
                 </td>
@@ -110,6 +144,8 @@ function renderQuestions(questions) {
         optionsHtml += '</ul>';
 
         tr.innerHTML = `
+            <td><input type="checkbox" class="form-check-input" ${selectedIds.has(q.id) ? 'checked' : ''}
+                onchange="toggleSelection(${q.id}, this.checked)"></td>
             <td class="ps-4 text-muted">${index + 1}</td>
             <td><div class="fw-bold text-wrap" style="max-width: 300px;">${escapeHtml(q.text)}</div></td>
             <td><span class="badge bg-light text-dark border">${escapeHtml(q.blockName || '-')}</span></td>
@@ -130,24 +166,60 @@ function renderQuestions(questions) {
     });
 }
 
-// Lógica de filtrado
-function filterQuestions() {
-    const searchText = document.getElementById('searchInput').value.toLowerCase();
-    const blockFilter = document.getElementById('filterBlock').value;
+// Selección múltiple
+function toggleSelection(id, checked) {
+    if (checked) {
+        selectedIds.add(id);
+    } else {
+        selectedIds.delete(id);
+    }
+    updateBulkActions();
+}
 
-    const filtered = allQuestions.filter(q => {
-        const matchesText = q.text.toLowerCase().includes(searchText) || 
-                            q.option1.toLowerCase().includes(searchText) ||
-                            q.option2.toLowerCase().includes(searchText) ||
-                            q.option3.toLowerCase().includes(searchText) ||
-                            q.option4.toLowerCase().includes(searchText);
-        
-        const matchesBlock = blockFilter === '' || (q.blockName && q.blockName === blockFilter);
+function toggleSelectAll(checked) {
+    allQuestions.forEach(q => checked ? selectedIds.add(q.id) : selectedIds.delete(q.id));
+    renderQuestions(allQuestions);
+    updateBulkActions();
+}
 
-        return matchesText && matchesBlock;
-    });
+function updateBulkActions() {
+    document.getElementById('selectedCount').textContent = selectedIds.size;
+    document.getElementById('bulkActions').style.display = selectedIds.size > 0 ? 'block' : 'none';
+    document.getElementById('selectAll').checked = allQuestions.length > 0 && allQuestions.every(q => selectedIds.has(q.id));
+}
 
-    renderQuestions(filtered);
+async function duplicateSelected() {
+    try {
+        const response = await axios.post('/api/questions/bulk-duplicate', { ids: [...selectedIds] });
+        showToast('Éxito', `${response.data.duplicated} preguntas duplicadas.`, 'text-success');
+        loadQuestions();
+    } catch (error) {
+        showToast('Error', 'No se pudieron duplicar las preguntas.', 'text-danger');
+        console.error(error);
+    }
+}
+
+async function deleteSelected() {
+    if (!confirm(`¿Eliminar ${selectedIds.size} preguntas? Esta acción no se puede deshacer.`)) {
+        return;
+    }
+    try {
+        const response = await axios.post('/api/questions/bulk-delete', { ids: [...selectedIds] });
+        showToast('Eliminado', `${response.data.deleted} preguntas eliminadas.`, 'text-success');
+        loadQuestions();
+    } catch (error) {
+        const message = error.response?.status === 409
+            ? 'Algunas preguntas se usan en salas y no se pueden eliminar.'
+            : 'No se pudieron eliminar las preguntas.';
+        showToast('Error', message, 'text-danger');
+        console.error(error);
+    }
+}
+
+// Lógica de filtrado: se espera a que el usuario deje de escribir y se consulta al servidor
+function filterQuestions() {
+    clearTimeout(searchTimer);
+    searchTimer = setTimeout(() => loadQuestions(true), 300);
 }
 
 // Ayudas de la ventana
@@ -250,6 +322,62 @@ async function saveQuestion() {
     }
 }
 
+// Importación masiva
+function prepareImportModal() {
+    document.getElementById('importFile').value = '';
+    document.getElementById('importResult').style.display = 'none';
+    const filterBlock = document.getElementById('filterBlock').value;
+    if (filterBlock) {
+        document.getElementById('importBlockSelect').value = filterBlock;
+    }
+    importModal.show();
+}
+
+async function importQuestions() {
+    const blockId = document.getElementById('importBlockSelect').value;
+    const file = document.getElementById('importFile').files[0];
+    if (!blockId || !file) {
+        showToast('Atención', 'Selecciona un bloque y un fichero.', 'text-warning');
+        return;
+    }
+
+    const formData = new FormData();
+    formData.append('blockId', blockId);
+    formData.append('file', file);
+
+    const button = document.getElementById('importBtn');
+    button.disabled = true;
+    try {
+        const response = await axios.post('/api/questions/import', formData);
+        renderImportResult(response.data);
+        showToast('Éxito', `${response.data.imported} preguntas importadas.`, 'text-success');
+        loadQuestions();
+    } catch (error) {
+        const message = error.response?.data?.message || 'No se pudo importar el fichero.';
+        showToast('Error', message, 'text-danger');
+        console.error(error);
+    } finally {
+        button.disabled = false;
+    }
+}
+
+function renderImportResult(result) {
+    const container = document.getElementById('importResult');
+    let html = `<div><strong>${result.imported}</strong> importadas, <strong>${result.failed}</strong> con errores (${result.elapsedMillis} ms)</div>`;
+    if (result.errors.length > 0) {
+        html += '<ul class="mt-2 mb-0" style="max-height: 200px; overflow-y: auto; font-size: 13px; color: #EF4444;">';
+        result.errors.forEach(err => {
+            html += `<li>Fila ${err.row}: ${escapeHtml(err.message)}</li>`;
+        });
+        html += '</ul>';
+        if (result.errorsTruncated) {
+            html += '<small class="text-muted">Solo se muestran los primeros errores.</small>';
+        }
+    }
+    container.innerHTML = html;
+    container.style.display = 'block';
+}
+
 function prepareDelete(id) {
     deleteId = id;
     deleteModal.show();
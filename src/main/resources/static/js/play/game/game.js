@@ -1,19 +1,128 @@
 const roomId = window.roomId ?? 0;
 const playerId = window.playerId ?? 0;
-// Usar inicialización segura desde el atributo del modelo, por defecto null si no existe
-let currentQuestionId = window.currentQuestionId ?? null;
-// Variable para controlar el intervalo de polling
-let pollInterval = 2000; // por defecto 2 segundos
+// Pregunta mostrada en pantalla; la primera la trae el polling al cargar la página
+let currentQuestionId = null;
+// Pregunta que se está descargando, para no pedirla dos veces
+let loadingQuestionId = null;
+// Parar la cuenta atrás en curso (null si no hay ninguna)
+let stopCountdown = null;
+// Versión (ETag) del último estado recibido: el servidor aparca la petición hasta que cambie
+let statusVersion = null;
 
 console.log("Game initialized", { roomId, playerId, currentQuestionId });
 
-function getCsrf() {
-  const tokenMeta = document.querySelector('meta[name="_csrf"]');
-  const headerMeta = document.querySelector('meta[name="_csrf_header"]');
-  const tokenInput = document.querySelector('input[name="_csrf"]');
-  const token = (tokenMeta && tokenMeta.content) || (tokenInput && tokenInput.value) || null;
-  const header = (headerMeta && headerMeta.content) || "X-CSRF-TOKEN";
-  return { token, header };
+/**
+ * Mostrar una pregunta nueva en la misma página: texto, opciones y botones habilitados de nuevo
+ */
+function showQuestion(question) {
+  currentQuestionId = question.id;
+
+  document.getElementById("questionText").textContent = question.text;
+  document.getElementById("questionSubtitle").style.display = "";
+  document.getElementById("loadingQuestion").style.display = "none";
+
+  const buttons = document.querySelectorAll('.option-btn');
+  buttons.forEach((btn, i) => {
+    btn.querySelector("span").textContent = question.options[i];
+    btn.disabled = false;
+    btn.style.opacity = '';
+    btn.style.cursor = '';
+  });
+  document.getElementById("optionsGrid").style.display = "";
+
+  // Restablecer la pantalla de resultado para la siguiente respuesta
+  const title = document.getElementById("resultTitle");
+  const text = document.getElementById("resultText");
+  const icon = document.getElementById("resultIcon");
+  if (title) title.textContent = "¡Respuesta enviada!";
+  if (text) text.textContent = "Espera a que termine el tiempo...";
+  if (icon) {
+    icon.className = "fas fa-check-circle";
+    icon.style.color = "#10B981";
+  }
+
+  document.getElementById("waitingScreen").style.display = "none";
+  document.getElementById("gameScreen").style.display = "";
+
+  startCountdown(question.deadline);
+}
+
+/**
+ * Cuenta atrás local hasta el cierre de la pregunta, con el reloj sincronizado con el servidor
+ */
+function startCountdown(deadline) {
+  hideCountdown();
+  const timer = document.getElementById("questionTimer");
+  const value = document.getElementById("questionTimerValue");
+  timer.style.display = "";
+  stopCountdown = QuizClock.countdown(deadline, (seconds) => {
+    value.textContent = seconds;
+    timer.classList.toggle("play-game__timer--ending", seconds <= 5);
+  });
+}
+
+function hideCountdown() {
+  if (stopCountdown) {
+    stopCountdown();
+    stopCountdown = null;
+  }
+  document.getElementById("questionTimer").style.display = "none";
+}
+
+/**
+ * Descargar el texto y las opciones de una pregunta (JSON pequeño y cacheable, sin la respuesta correcta)
+ */
+function loadQuestion(questionId) {
+  if (loadingQuestionId === questionId) {
+    return Promise.resolve();
+  }
+  loadingQuestionId = questionId;
+  return fetch(`/api/rooms/${roomId}/questions/${questionId}`)
+    .then((res) => {
+      if (!res.ok) {
+        throw new Error("HTTP " + res.status);
+      }
+      return res.json();
+    })
+    .then(showQuestion)
+    .catch((error) => console.error("Error cargando la pregunta:", error))
+    .finally(() => {
+      loadingQuestionId = null;
+    });
+}
+
+// Reintentos de un envío de respuesta si falla la red, el servidor (5xx) o la cola está llena (429)
+const SUBMIT_RETRIES = 3;
+
+function newIdempotencyKey() {
+  // crypto.randomUUID solo existe en contextos seguros (https o localhost)
+  if (window.crypto && crypto.randomUUID) {
+    return crypto.randomUUID();
+  }
+  return `${playerId}-${currentQuestionId}-${Date.now()}-${Math.random().toString(36).slice(2)}`;
+}
+
+function postAnswer(body, idempotencyKey, retriesLeft) {
+  const retry = (reason) => {
+    if (retriesLeft <= 0) {
+      return reason instanceof Response ? reason : Promise.reject(reason);
+    }
+    // Retry-After (segundos) manda si el servidor lo indica; si no, espera creciente
+    const retryAfter = reason instanceof Response ? Number(reason.headers.get("Retry-After")) : 0;
+    const delay = retryAfter > 0 ? retryAfter * 1000 : (SUBMIT_RETRIES - retriesLeft + 1) * 500;
+    console.warn(`Reintentando respuesta en ${delay}ms`, reason);
+    return new Promise((resolve) => setTimeout(resolve, delay))
+      .then(() => postAnswer(body, idempotencyKey, retriesLeft - 1));
+  };
+  return fetch(`/api/rooms/${roomId}/submit-answer`, {
+    method: "POST",
+    headers: {
+      "Content-Type": "application/json",
+      "Idempotency-Key": idempotencyKey,
+    },
+    body: JSON.stringify(body),
+  })
+    .then((response) => (response.status === 429 || response.status >= 500 ? retry(response) : response), retry);
 }
 
 function submitAnswer(option) {
@@ -37,23 +146,14 @@ function submitAnswer(option) {
     return;
   }
 
-  const { token, header } = getCsrf();
-  const headers = {
-    "Content-Type": "application/json",
-  };
-  if (token) {
-    headers[header] = token;
-  }
-
-  fetch(`/api/rooms/${roomId}/submit-answer`, {
-    method: "POST",
-    headers,
-    body: JSON.stringify({
-      playerId: playerId,
-      questionId: currentQuestionId,
-      selectedOption: option,
-    }),
-  })
+  // El jugador se identifica con la cookie firmada que se emitió al unirse (misma web: el navegador la envía sola)
+  // La misma Idempotency-Key en cada reintento: el servidor devuelve el resultado original en vez de un 409
+  const idempotencyKey = newIdempotencyKey();
+  postAnswer({
+    playerId: playerId,
+    questionId: currentQuestionId,
+    selectedOption: option,
+  }, idempotencyKey, SUBMIT_RETRIES)
     .then((response) => {
       console.log("Submit answer response:", response.status, response.ok);
       if (!response.ok) {
@@ -69,6 +169,9 @@ function submitAnswer(option) {
       const text = document.getElementById("resultText");
       const icon = document.getElementById("resultIcon");
       
+      const score = document.getElementById("playerScore");
+      if (score) score.textContent = data.totalScore;
+
       if (data.correct) {
         if (title) title.textContent = "¡Correcta!";
         if (text) text.textContent = `+${data.points} puntos (total: ${data.totalScore})`;
@@ -94,16 +197,46 @@ function submitAnswer(option) {
       if (text) text.textContent = "Hubo un problema. Espera la siguiente pregunta...";
     });
 }
+// Leer la versión del ETag ('"lx3k9q2a-5"' -> "lx3k9q2a-5": arranque del servidor y transición)
+// Leer la versión del ETag ("\"lx3k9q2a-5\"" -> "lx3k9q2a-5"): arranque del servidor y transición
+function versionFromEtag(response) {
+  const etag = response.headers.get("ETag");
+  return etag ? etag.replace(/^W\//, "").replace(/"/g, "") : null;
+}
 
-// Función de polling dinámico
+// Long-polling: cada petición espera en el servidor hasta la siguiente transición (o 25 s sin cambios -> 304)
 function pollQuestionStatus() {
-  fetch(`/api/rooms/${roomId}/current-question`)
-    .then((res) => res.json())
+  const headers = {};
+  let url = `/api/rooms/${roomId}/current-question`;
+  if (statusVersion !== null) {
+    url += `?waitFor=${statusVersion}&timeout=25s`;
+    headers["If-None-Match"] = `"${statusVersion}"`;
+  }
+
+  fetch(url, { headers, cache: "no-store" })
+    .then((res) => {
+      if (res.status === 304) {
+        return null;
+      }
+      if (!res.ok) {
+        throw new Error("HTTP " + res.status);
+      }
+      statusVersion = versionFromEtag(res);
+      return res.json();
+    })
     .then((data) => {
-      console.log("Polling response completo:", data);
-      console.log("data.finished =", data.finished);
-      console.log("Todas las propiedades:", Object.keys(data));
+      if (!data) {
+        // Sin cambios durante la espera: volver a aparcar la petición
+        pollQuestionStatus();
+        return;
+      }
+      console.log("Polling response:", data);
       
+      // Fuera de una pregunta abierta no hay cuenta atrás
+      if (data.state !== 'ACTIVE') {
+        hideCountdown();
+      }
+
       // Si el juego terminó, redirigir al podio
       if (data.finished) {
         console.log("¡Juego terminado! Redirigiendo a podio...", { roomId });
@@ -111,27 +244,21 @@ function pollQuestionStatus() {
         return;
       }
 
-      // Si hay una nueva pregunta ACTIVA Y ABIERTA diferente, recargar
-      // IMPORTANTE: Verificar isOpen para evitar recargar durante transición
+      // Si hay una nueva pregunta ACTIVA Y ABIERTA diferente, mostrarla sin recargar la página
+      // IMPORTANTE: Verificar isOpen para no mostrarla durante la transición
       if (data.id && data.id !== currentQuestionId && data.state === 'ACTIVE' && data.isOpen) {
-        console.log("Nueva pregunta activa y abierta detectada, recargando...");
-        window.location.reload();
+        console.log("Nueva pregunta activa y abierta detectada, cargando...");
+        loadQuestion(data.id).then(pollQuestionStatus);
         return;
       }
 
-
       // Si estamos esperando y hay una pregunta en camino, mostrar mensaje de espera
-      // y ACELERAR el polling
       if (data.state === 'WAITING' && data.nextQuestionSoon) {
         console.log("Esperando siguiente pregunta...");
         const waitingText = document.getElementById("resultText");
         if (waitingText) {
           waitingText.textContent = "Preparando siguiente pregunta...";
         }
-        // Polling más rápido cuando esperamos pregunta
-        pollInterval = 500;
-        setTimeout(pollQuestionStatus, pollInterval);
-        return;
       }
 
       // Si la pregunta actual está cerrada y hay otra en camino
@@ -141,15 +268,9 @@ function pollQuestionStatus() {
         if (waitingText) {
           waitingText.textContent = "Siguiente pregunta en camino...";
         }
-        // Polling más rápido cuando esperamos pregunta
-        pollInterval = 500;
-        setTimeout(pollQuestionStatus, pollInterval);
-        return;
       }
 
-      // Polling normal
-      pollInterval = 2000;
-      setTimeout(pollQuestionStatus, pollInterval);
+      pollQuestionStatus();
     })
     .catch((error) => {
       console.error("Error en polling:", error);
@@ -158,5 +279,5 @@ function pollQuestionStatus() {
     });
 }
 
-// Iniciar el polling
-pollQuestionStatus();
+// Sincronizar el reloj e iniciar el polling
+QuizClock.sync().then(pollQuestionStatus);
@@ -1,8 +1,10 @@
 // Wait page functionality
-// Poll the server to check if the game has started
+// Long-poll the server until the game starts
 
 // Get room PIN from the page (will be set by Thymeleaf)
 let roomPin = '0000';
+// Version (ETag) of the last room state received; the server holds the request until it changes
+let statusVersion = null;
 
 // Initialize when DOM is loaded
 document.addEventListener('DOMContentLoaded', function () {
@@ -11,21 +13,42 @@ document.addEventListener('DOMContentLoaded', function () {
     if (roomPinElement) {
         roomPin = roomPinElement.getAttribute('data-room-pin');
     }
+    checkStatus();
 });
 
 /**
  * Check the room status to see if the game has started
+ * After the first response, each request waits on the server (up to 25 s) for the next state change
  */
 function checkStatus() {
-    fetch('/api/rooms/' + roomPin + '/status')
-        .then(response => response.json())
+    const headers = {};
+    let url = '/api/rooms/' + roomPin + '/status';
+    if (statusVersion !== null) {
+        url += '?waitFor=' + statusVersion + '&timeout=25s';
+        headers['If-None-Match'] = '"' + statusVersion + '"';
+    }
+
+    fetch(url, { headers: headers, cache: 'no-store' })
+        .then(response => {
+            if (response.status === 304) {
+                return null;
+            }
+            if (!response.ok) {
+                throw new Error('HTTP ' + response.status);
+            }
+            const etag = response.headers.get('ETag');
+            statusVersion = etag ? etag.replace(/^W\//, '').replace(/"/g, '') : null;
+            return response.json();
+        })
         .then(data => {
-            if (data.state === 'RUNNING') {
+            if (data && data.state === 'RUNNING') {
                 window.location.href = '/play/game';
+                return;
             }
+            checkStatus();
         })
-        .catch(err => console.error('Error checking room status', err));
+        .catch(err => {
+            console.error('Error checking room status', err);
+            setTimeout(checkStatus, 2000);
+        });
 }
-
-// Poll every 1 second for faster response
-setInterval(checkStatus, 1000);
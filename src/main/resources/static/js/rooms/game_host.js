@@ -3,40 +3,42 @@
 console.log('[HOST] Archivo game_host.js cargado. roomId:', roomId);
 
 // Variables locales del archivo
-let timerInterval = null;
+let stopCountdown = null;
+let currentDeadline = null;
 let pollInterval = 1000; // Polling interval dinámico
 
 
 const timerFill = document.getElementById('timerFill');
 const timerDisplay = document.querySelector('#timerDisplay span');
 
-// Función para iniciar el temporizador visual
-function startTimer(duration) {
-    timeLeft = duration;
-    timeLimit = duration;
+// Temporizador visual: cuenta atrás local hasta el cierre (deadline, hora del servidor sincronizada)
+function startTimer(deadline) {
+    currentDeadline = deadline;
     
     // Limpiar temporizador anterior si existe
-    if (timerInterval) {
-        clearInterval(timerInterval);
+    if (stopCountdown) {
+        stopCountdown();
     }
     
     if (timerFill && timerDisplay) {
-        timerInterval = setInterval(() => {
-            timeLeft--;
-            timerDisplay.textContent = Math.max(0, timeLeft);
-            timerFill.style.width = Math.max(0, (timeLeft / timeLimit * 100)) + '%';
-
-            if (timeLeft <= 0) {
-                clearInterval(timerInterval);
-                timerInterval = null;
-            }
-        }, 1000);
+        stopCountdown = QuizClock.countdown(deadline, (seconds, remainingMillis) => {
+            timeLeft = seconds;
+            timerDisplay.textContent = seconds;
+            timerFill.style.width = Math.max(0, remainingMillis / (timeLimit * 1000) * 100) + '%';
+        });
     }
 }
 
-// Iniciar temporizador si hay una pregunta activa
-if (currentQuestionId && timeLimit) {
-    startTimer(timeLimit);
+function updateAnswersCount() {
+    fetch(`/api/rooms/${roomId}/answers-count`)
+        .then(res => res.json())
+        .then(data => {
+            const answersCountEl = document.getElementById('answersCount');
+            if (answersCountEl) {
+                answersCountEl.textContent = data.answersCount;
+            }
+        })
+        .catch(error => console.error('[HOST] Error obteniendo respuestas:', error));
 }
 
 // Poll para sincronización automática con el backend (dinámico)
@@ -82,18 +84,17 @@ function pollHostStatus() {
                 return;
             }
             
-            // Actualizar contador de respuestas en tiempo real
-            if (typeof data.answersCount === 'number') {
-                const answersCountEl = document.getElementById('answersCount');
-                if (answersCountEl) {
-                    answersCountEl.textContent = data.answersCount;
-                }
+            // Actualizar contador de respuestas en tiempo real (contador en memoria del servidor)
+            if (data.state === 'ACTIVE') {
+                updateAnswersCount();
             }
             
-            // Sincronizar temporizador si hay información de tiempo restante
-            if (data.remainingSeconds !== undefined && Math.abs(timeLeft - data.remainingSeconds) > 2) {
-                console.log('[HOST] Sincronizando temporizador:', data.remainingSeconds);
-                startTimer(data.remainingSeconds);
+            // Arrancar la cuenta atrás con el instante de cierre de la pregunta (una vez por pregunta)
+            if (data.deadline !== undefined && data.deadline !== currentDeadline) {
+                if (data.timePerQuestion) {
+                    timeLimit = data.timePerQuestion;
+                }
+                startTimer(data.deadline);
             }
             
             // Polling normal
@@ -106,6 +107,6 @@ function pollHostStatus() {
         });
 }
 
-// Iniciar polling
-pollHostStatus();
+// Sincronizar el reloj e iniciar polling
+QuizClock.sync().then(pollHostStatus);
 
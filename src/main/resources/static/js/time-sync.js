@@ -0,0 +1,65 @@
+// Reloj sincronizado con el servidor (estilo NTP) para las cuentas atrás de las preguntas
+// Los estados de pregunta traen instantes absolutos (openedAt, deadline) en hora del servidor:
+// con el desfase calculado aquí, cada cliente cuenta el tiempo en local sin volver a preguntar.
+const QuizClock = (function () {
+  // Hora del servidor - hora local, en milisegundos
+  let offset = 0;
+  // Menor retardo de ida y vuelta visto: la muestra más rápida es la más fiable
+  let bestRoundTrip = Infinity;
+
+  function sample() {
+    const t0 = Date.now();
+    return fetch(`/api/time?t0=${t0}`, { cache: "no-store" })
+      .then((res) => res.json())
+      .then((data) => {
+        const t3 = Date.now();
+        const roundTrip = (t3 - t0) - (data.serverSendTime - data.serverReceiveTime);
+        if (roundTrip < bestRoundTrip) {
+          bestRoundTrip = roundTrip;
+          offset = ((data.serverReceiveTime - t0) + (data.serverSendTime - t3)) / 2;
+        }
+      });
+  }
+
+  /**
+   * Tomar varias muestras seguidas y quedarse con la de menor retardo
+   * Si falla, se sigue con la hora local (desfase 0)
+   */
+  function sync(samples = 5) {
+    let chain = Promise.resolve();
+    for (let i = 0; i < samples; i++) {
+      chain = chain.then(sample);
+    }
+    return chain
+      .then(() => console.log("Reloj sincronizado", { offset, bestRoundTrip }))
+      .catch((error) => console.error("Error sincronizando el reloj:", error));
+  }
+
+  function now() {
+    return Date.now() + offset;
+  }
+
+  /**
+   * Cuenta atrás hasta deadline (hora del servidor); onTick recibe los segundos restantes
+   * Retorna una función para pararla
+   */
+  function countdown(deadline, onTick) {
+    let lastSeconds = null;
+    const tick = () => {
+      const remainingMillis = Math.max(0, deadline - now());
+      const seconds = Math.ceil(remainingMillis / 1000);
+      if (seconds !== lastSeconds) {
+        lastSeconds = seconds;
+        onTick(seconds, remainingMillis);
+      }
+      if (remainingMillis <= 0) {
+        clearInterval(timer);
+      }
+    };
+    const timer = setInterval(tick, 200);
+    tick();
+    return () => clearInterval(timer);
+  }
+
+  return { sync, now, countdown };
+})();
@@ -0,0 +1,161 @@
+package com.quizlive;
+
+import com.quizlive.dto.BlockSummaryDTO;
+import com.quizlive.model.Answer;
+import com.quizlive.model.Player;
+import com.quizlive.model.Room;
+import com.quizlive.model.RoomQuestion;
+import com.quizlive.model.User;
+import com.quizlive.repository.AnswerRepository;
+import com.quizlive.repository.UserRepository;
+import com.quizlive.service.BlockService;
+import com.quizlive.service.GameEngineService;
+import com.quizlive.service.PlayerService;
+import com.quizlive.service.RoomService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.TestExecutionEvent;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuesto de sentencias SQL por endpoint (estadísticas de Hibernate)
+ *
+ * Cada petición debe preparar como mucho un número fijo de sentencias, independiente del número de
+ * jugadores, preguntas y respuestas de la sala: si vuelve un N+1 el recuento se dispara y el test falla.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "quizlive.reaper.interval-seconds=0",
+        "quizlive.profile.stats-ttl-seconds=0"
+})
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WithUserDetails(value = "host1@quizlive.com", setupBefore = TestExecutionEvent.TEST_EXECUTION)
+class QueryCountTest {
+
+    private static final String HOST_EMAIL = "host1@quizlive.com";
+    private static final int PLAYERS = 12;
+    private static final int QUESTIONS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BlockService blockService;
+    @Autowired
+    private RoomService roomService;
+    @Autowired
+    private PlayerService playerService;
+    @Autowired
+    private GameEngineService gameEngineService;
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    private Statistics statistics;
+    private Long blockId;
+    private Long finishedRoomId;
+    private String runningRoomPin;
+
+    @BeforeAll
+    void createRooms() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        User host = userRepository.findByEmail(HOST_EMAIL).orElseThrow();
+        List<BlockSummaryDTO> blocks = blockService.getBlockSummariesByUser(host.getId());
+        blockId = blocks.get(0).getId();
+
+        // Sala finalizada con todas las respuestas para el podio
+        Room finished = roomService.createRoom(blockId, QUESTIONS, Room.SelectionMode.RANDOM, 60, host, null);
+        List<Player> players = joinPlayers(finished.getPin());
+        roomService.startRoom(finished.getId(), host.getId());
+        List<Answer> answers = new ArrayList<>();
+        for (RoomQuestion roomQuestion : roomService.getRoomQuestions(finished.getId())) {
+            for (int i = 0; i < players.size(); i++) {
+                boolean correct = (i + roomQuestion.getOrderNum()) % 3 != 0;
+                answers.add(new Answer(null, players.get(i), roomQuestion, 1 + i % 4,
+                        1000L + 100L * i, correct, correct ? 1 : 0, null));
+            }
+        }
+        answerRepository.saveAll(answers);
+        roomService.finishRoom(finished.getId());
+        finishedRoomId = finished.getId();
+
+        // Sala en juego para el monitor; tiempo por pregunta largo para que no avance durante el test
+        Room running = roomService.createRoom(blockId, QUESTIONS, Room.SelectionMode.RANDOM, 600, host, null);
+        joinPlayers(running.getPin());
+        gameEngineService.startGame(running.getPin());
+        runningRoomPin = running.getPin();
+    }
+
+    @AfterAll
+    void finishRunningRoom() {
+        gameEngineService.finishGame(runningRoomPin);
+    }
+
+    private List<Player> joinPlayers(String pin) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            players.add(playerService.joinRoom(pin, "Jugador" + i));
+        }
+        return players;
+    }
+
+    @Test
+    void podium() throws Exception {
+        assertStatementBudget(get("/rooms/{id}/podium", finishedRoomId), 6);
+        assertStatementBudget(get("/rooms/{id}/podium", finishedRoomId).param("playerName", "Jugador3"), 7);
+    }
+
+    @Test
+    void blockList() throws Exception {
+        assertStatementBudget(get("/blocks"), 2);
+    }
+
+    @Test
+    void blockDetail() throws Exception {
+        assertStatementBudget(get("/blocks/{id}", blockId), 2);
+    }
+
+    @Test
+    void profile() throws Exception {
+        assertStatementBudget(get("/profile"), 3);
+    }
+
+    @Test
+    void monitor() throws Exception {
+        assertStatementBudget(get("/api/monitor/active-rooms"), 2);
+        assertStatementBudget(get("/api/monitor/room/{pin}", runningRoomPin), 3);
+        assertStatementBudget(get("/api/monitor/stats"), 1);
+    }
+
+    private void assertStatementBudget(RequestBuilder request, long budget) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= budget,
+                () -> "Expected at most " + budget + " SQL statements but got " + statements);
+    }
+}
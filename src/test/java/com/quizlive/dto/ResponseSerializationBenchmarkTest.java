@@ -0,0 +1,204 @@
+package com.quizlive.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.quizlive.model.Answer;
+import com.quizlive.model.Player;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark de serialización de las respuestas de la API: forma anterior (entidades y HashMap) frente a los records
+ *
+ * Mide bytes de JSON, memoria reservada por respuesta (ThreadMXBean, incluye construir la respuesta como hace
+ * el controlador) y tiempo medio. Es lento, así que solo se ejecuta a petición (ver RESPUESTAS_API.md):
+ * mvn -B test -Dtest=ResponseSerializationBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ResponseSerializationBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 100_000;
+    private static final int MEASURED_ITERATIONS = 200_000;
+    private static final int PLAYERS = 30;
+    private static final int ANSWERS_PER_PLAYER = 10;
+    private static final int MONITOR_ROOMS = 10;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Player tal como se serializaba antes de ignorar la colección answers
+     */
+    abstract static class PlayerWithAnswers {
+        @JsonIgnore(false)
+        @JsonProperty
+        List<Answer> answers;
+
+        @JsonIgnore(false)
+        @JsonProperty
+        abstract List<Answer> getAnswers();
+    }
+
+    private record Result(int bytes, long allocatedBytes, double micros) {
+    }
+
+    private static ObjectMapper before;
+    private static ObjectMapper after;
+    private static List<Player> lobby;
+    private static List<Player> game;
+
+    @BeforeAll
+    static void setUp() {
+        // Misma configuración que el ObjectMapper de Spring Boot
+        after = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        before = after.copy().addMixIn(Player.class, PlayerWithAnswers.class);
+        lobby = players(PLAYERS, 0);
+        game = players(PLAYERS, ANSWERS_PER_PLAYER);
+    }
+
+    @Test
+    void playersInLobby() throws Exception {
+        Result entities = measure("/players, lobby (entidades)", before, () -> lobby);
+        Result records = measure("/players, lobby (records)", after, () -> summaries(lobby));
+        assertSmaller(entities, records);
+    }
+
+    @Test
+    void playersInGame() throws Exception {
+        Result entities = measure("/players, en partida (entidades)", before, () -> game);
+        Result records = measure("/players, en partida (records)", after, () -> summaries(game));
+        assertSmaller(entities, records);
+    }
+
+    @Test
+    void roomStatus() throws Exception {
+        Result map = measure("/status (HashMap)", before, () -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("state", "WAITING");
+            response.put("pin", "1234");
+            return response;
+        });
+        Result record = measure("/status (record)", after, () -> new RoomStatusDTO("1234", "WAITING"));
+        assertTrue(record.allocatedBytes() <= map.allocatedBytes());
+    }
+
+    @Test
+    void answerResult() throws Exception {
+        Result map = measure("/submit-answer (HashMap)", before, () -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("correct", true);
+            response.put("points", 1);
+            response.put("totalScore", 7);
+            return response;
+        });
+        Result record = measure("/submit-answer (record)", after, () -> new AnswerResultDTO(true, 1, 7));
+        assertTrue(record.allocatedBytes() <= map.allocatedBytes());
+    }
+
+    @Test
+    void monitorActiveRooms() throws Exception {
+        Result map = measure("/monitor/active-rooms (HashMap)", before, () -> {
+            List<Map<String, Object>> rooms = new ArrayList<>();
+            for (int r = 0; r < MONITOR_ROOMS; r++) {
+                Map<String, Object> room = new HashMap<>();
+                room.put("pin", "10" + r);
+                room.put("activePlayers", PLAYERS);
+                room.put("playerNames", playerNames());
+                room.put("currentQuestionId", 5L);
+                room.put("questionOrder", 3);
+                room.put("questionOpen", true);
+                rooms.add(room);
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("timestamp", 1L);
+            response.put("activeRooms", MONITOR_ROOMS);
+            response.put("rooms", rooms);
+            return response;
+        });
+        Result record = measure("/monitor/active-rooms (records)", after, () -> {
+            List<MonitorRoomDTO> rooms = new ArrayList<>();
+            for (int r = 0; r < MONITOR_ROOMS; r++) {
+                rooms.add(new MonitorRoomDTO("10" + r, PLAYERS, playerNames(), 5L, 3, true));
+            }
+            return new MonitorRoomsDTO(1L, MONITOR_ROOMS, rooms);
+        });
+        assertTrue(record.allocatedBytes() <= map.allocatedBytes());
+    }
+
+    private static Result measure(String name, ObjectMapper mapper, Supplier<Object> response) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(response.get());
+        }
+        int bytes = mapper.writeValueAsBytes(response.get()).length;
+        long allocatedStart = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(response.get());
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedStart;
+
+        Result result = new Result(bytes, allocated / MEASURED_ITERATIONS, elapsed / 1000.0 / MEASURED_ITERATIONS);
+        System.out.printf("%-40s %8d bytes %10d B reservados %9.2f us%n",
+                name, result.bytes(), result.allocatedBytes(), result.micros());
+        return result;
+    }
+
+    private static void assertSmaller(Result before, Result after) {
+        assertTrue(after.bytes() <= before.bytes(), "JSON más grande con records");
+        assertTrue(after.allocatedBytes() < before.allocatedBytes(), "Más memoria reservada con records");
+    }
+
+    private static List<PlayerSummaryDTO> summaries(List<Player> players) {
+        return players.stream()
+                .map(p -> new PlayerSummaryDTO(p.getId(), p.getName(), p.getScore()))
+                .toList();
+    }
+
+    private static List<String> playerNames() {
+        List<String> names = new ArrayList<>(PLAYERS);
+        for (int i = 0; i < PLAYERS; i++) {
+            names.add("jugador" + i);
+        }
+        return names;
+    }
+
+    private static List<Player> players(int count, int answers) {
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Player player = new Player();
+            player.setId((long) i + 1);
+            player.setName("jugador" + i);
+            player.setScore(i * 37);
+            player.setJoinedAt(LocalDateTime.now());
+            for (int j = 0; j < answers; j++) {
+                Answer answer = new Answer();
+                answer.setId((long) (i * 100 + j));
+                answer.setSelectedOption(j % 4 + 1);
+                answer.setResponseTime(1234L);
+                answer.setIsCorrect(j % 2 == 0);
+                answer.setPointsEarned(j % 2 == 0 ? 1 : 0);
+                answer.setSubmittedAt(LocalDateTime.now());
+                player.getAnswers().add(answer);
+            }
+            players.add(player);
+        }
+        return players;
+    }
+}
@@ -0,0 +1,118 @@
+package com.quizlive.service;
+
+import com.quizlive.dto.AnswerEvent;
+import com.quizlive.model.Player;
+import com.quizlive.model.Room;
+import com.quizlive.model.RoomQuestion;
+import com.quizlive.model.User;
+import com.quizlive.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carga del registro de respuestas: checkpoint solo tras el commit y respuestas rechazadas en dead-letter
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:answerlogtest",
+        "quizlive.answer-log.enabled=true",
+        "quizlive.answer-log.tail-interval-ms=3600000",
+        "quizlive.reaper.interval-seconds=0"
+})
+@ActiveProfiles("dev")
+class AnswerEventLogTailerTest {
+
+    private static final Path LOG_DIR = createLogDir();
+
+    @DynamicPropertySource
+    static void answerLogDir(DynamicPropertyRegistry registry) {
+        registry.add("quizlive.answer-log.dir", LOG_DIR::toString);
+    }
+
+    @Autowired
+    private AnswerEventLog answerEventLog;
+    @Autowired
+    private AnswerEventLogTailer tailer;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BlockService blockService;
+    @Autowired
+    private RoomService roomService;
+    @Autowired
+    private PlayerService playerService;
+
+    @Test
+    void batchesCommitEvenIfTheCallerRollsBack() {
+        Room room = newRoom();
+        Player player = playerService.joinRoom(room.getPin(), "rollback");
+        RoomQuestion question = roomService.getRoomQuestions(room.getId()).get(0);
+        answerEventLog.append(event(room, question, player.getId(), 1));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            tailer.drain();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(answerEventLog.getCommittedSequence(), answerEventLog.getLoadedSequence());
+        assertEquals(1, countAnswers(question));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT score FROM players WHERE id = ?", Integer.class, player.getId()));
+    }
+
+    @Test
+    void rejectedAnswersGoToDeadLetterAndTheRestLoad() throws IOException {
+        Room room = newRoom();
+        Player player = playerService.joinRoom(room.getPin(), "valid");
+        RoomQuestion question = roomService.getRoomQuestions(room.getId()).get(0);
+        answerEventLog.append(event(room, question, player.getId(), 1));
+        answerEventLog.append(event(room, question, 999_999L, 1));
+
+        assertEquals(2, tailer.drain());
+
+        assertEquals(answerEventLog.getCommittedSequence(), answerEventLog.getLoadedSequence());
+        assertEquals(1, countAnswers(question));
+        List<String> deadLetters = Files.readAllLines(LOG_DIR.resolve("dead-letter.csv"));
+        assertTrue(deadLetters.stream().anyMatch(line -> line.contains(",999999,")));
+    }
+
+    private Room newRoom() {
+        User host = userRepository.findByEmail("host1@quizlive.com").orElseThrow();
+        Long blockId = blockService.getBlockSummariesByUser(host.getId()).get(0).getId();
+        return roomService.createRoom(blockId, 1, Room.SelectionMode.RANDOM, 60, host, null);
+    }
+
+    private int countAnswers(RoomQuestion question) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM answers WHERE room_question_id = ?",
+                Integer.class, question.getId());
+    }
+
+    private static AnswerEvent event(Room room, RoomQuestion question, long playerId, int points) {
+        return new AnswerEvent(room.getId(), question.getId(), playerId, 1, points > 0, 1_500_000_000L, points,
+                System.currentTimeMillis());
+    }
+
+    private static Path createLogDir() {
+        try {
+            return Files.createTempDirectory("answer-log-test");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.quizlive.service;
+
+import com.quizlive.dto.AnswerResultDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AnswerResultCacheTest {
+
+    @Test
+    void replaysSameKeyAndRejectsAnotherKey() {
+        AnswerResultCache cache = new AnswerResultCache(120, 10);
+        CompletableFuture<AnswerResultDTO> first = new CompletableFuture<>();
+
+        assertNull(cache.reserve(1, 1, "a", first));
+        assertSame(first, cache.reserve(1, 1, "a", new CompletableFuture<>()));
+        assertThrows(IllegalStateException.class, () -> cache.reserve(1, 1, "b", new CompletableFuture<>()));
+    }
+
+    @Test
+    void evictsOldestEntriesAboveMaxEntries() {
+        AnswerResultCache cache = new AnswerResultCache(120, 3);
+        CompletableFuture<AnswerResultDTO> newest = new CompletableFuture<>();
+        for (long playerId = 1; playerId <= 4; playerId++) {
+            cache.reserve(playerId, 1, "k", new CompletableFuture<>());
+        }
+        cache.reserve(5, 1, "k", newest);
+
+        assertEquals(3, cache.size());
+        // La más antigua ya no está: se puede reservar de nuevo
+        assertNull(cache.reserve(1, 1, "otra", new CompletableFuture<>()));
+        assertSame(newest, cache.reserve(5, 1, "k", new CompletableFuture<>()));
+    }
+
+    @Test
+    void dropsExpiredEntriesWhenReserving() {
+        AnswerResultCache cache = new AnswerResultCache(0, 100);
+        for (long playerId = 1; playerId <= 50; playerId++) {
+            cache.reserve(playerId, 1, "k", new CompletableFuture<>());
+        }
+
+        // Con TTL 0 cada reserva caduca al momento: la cola no acumula nada
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void releasedEntriesDoNotCountAgainstTheNextEviction() {
+        AnswerResultCache cache = new AnswerResultCache(120, 2);
+        CompletableFuture<AnswerResultDTO> released = new CompletableFuture<>();
+        cache.reserve(1, 1, "k", released);
+        cache.release(1, 1, released);
+        CompletableFuture<AnswerResultDTO> retried = new CompletableFuture<>();
+        cache.reserve(1, 1, "k", retried);
+        cache.reserve(2, 1, "k", new CompletableFuture<>());
+
+        // El nodo liberado sale de la cola sin llevarse la reserva nueva del mismo jugador
+        assertEquals(2, cache.size());
+        assertSame(retried, cache.reserve(1, 1, "k", new CompletableFuture<>()));
+    }
+}
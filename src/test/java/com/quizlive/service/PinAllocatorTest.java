@@ -0,0 +1,88 @@
+package com.quizlive.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Reserva de PINs en room_pins: dos nodos con pools independientes nunca se quedan el mismo PIN
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pinallocatortest",
+        "quizlive.reaper.interval-seconds=0"
+})
+@ActiveProfiles("dev")
+class PinAllocatorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void deleteSingleDigitClaims() {
+        jdbcTemplate.update("DELETE FROM room_pins WHERE LENGTH(pin) = 1");
+    }
+
+    @Test
+    void skipsPinsClaimedByAnotherNode() {
+        // PINs de un dígito: el espacio entero cabe en el test
+        PinAllocator node = newNode();
+        for (int value = 0; value < 9; value++) {
+            claimElsewhere(String.valueOf(value));
+        }
+
+        assertEquals("9", node.allocate());
+        assertThrows(IllegalStateException.class, node::allocate);
+    }
+
+    @Test
+    void twoNodesNeverShareAPin() {
+        PinAllocator first = newNode();
+        PinAllocator second = newNode();
+
+        for (int i = 0; i < 5; i++) {
+            first.allocate();
+            second.allocate();
+        }
+
+        assertEquals(10, countSingleDigitClaims());
+        assertThrows(IllegalStateException.class, first::allocate);
+    }
+
+    @Test
+    void releaseDeletesTheClaim() {
+        PinAllocator node = newNode();
+        String pin = node.allocate();
+
+        node.release(pin);
+
+        assertEquals(0, countSingleDigitClaims());
+        assertEquals(10, node.getFreeCount());
+    }
+
+    private PinAllocator newNode() {
+        PinAllocator allocator = new PinAllocator(jdbcTemplate, transactionManager, 1);
+        allocator.init();
+        return allocator;
+    }
+
+    private void claimElsewhere(String pin) {
+        jdbcTemplate.update("INSERT INTO room_pins (pin, claimed_at) VALUES (?, ?)",
+                pin, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private int countSingleDigitClaims() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM room_pins WHERE LENGTH(pin) = 1", Integer.class);
+    }
+}